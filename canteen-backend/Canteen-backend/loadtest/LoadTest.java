@@ -0,0 +1,209 @@
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Closed-loop load driver for GET /api/menu, GET /api/orders and
+ * POST /api/auth/login. Each endpoint is driven on its own by a fixed number
+ * of clients for a fixed time after a warm-up, and throughput and latency
+ * percentiles are appended to a CSV file so runs in different thread modes
+ * can be compared. Throughput and percentiles cover successful responses
+ * only; failures are counted per status in their own columns, since a fast
+ * 503 would otherwise pull the percentiles down. No dependencies: run with
+ * {@code java loadtest/LoadTest.java}.
+ */
+public class LoadTest {
+
+    // Stands in for the status code when the request failed without a response
+    private static final int IO_ERROR = 0;
+
+    public static void main(String[] args) throws Exception {
+        Map<String, String> options = parse(args);
+        String baseUrl = options.getOrDefault("base-url", "http://localhost:8082");
+        String label = options.getOrDefault("label", "run");
+        int clients = Integer.parseInt(options.getOrDefault("clients", "64"));
+        Duration warmup = Duration.ofSeconds(Long.parseLong(options.getOrDefault("warmup", "10")));
+        Duration duration = Duration.ofSeconds(Long.parseLong(options.getOrDefault("duration", "30")));
+        Path out = Path.of(options.getOrDefault("out", "target/loadtest/results.csv"));
+        String username = options.getOrDefault("username", "user");
+        String password = options.getOrDefault("password", "user123");
+        // The app's app.auth.hash-threads and app.auth.hash-queue; 0 threads means half the cores, as in the app
+        int hashThreads = Integer.parseInt(options.getOrDefault("hash-threads", "0"));
+        if (hashThreads <= 0) {
+            hashThreads = Math.max(1, Runtime.getRuntime().availableProcessors() / 2);
+        }
+        int hashQueue = Integer.parseInt(options.getOrDefault("hash-queue", "64"));
+        // Well inside the hashing pool plus its queue, so the login run measures hashing rather than 503s
+        int loginClients = Integer.parseInt(options.getOrDefault("login-clients",
+                String.valueOf(Math.min(clients, hashThreads + hashQueue / 2))));
+
+        HttpClient client = HttpClient.newBuilder()
+                .version(HttpClient.Version.HTTP_1_1)
+                .connectTimeout(Duration.ofSeconds(5))
+                .build();
+        String loginBody = "{\"username\":\"" + username + "\",\"password\":\"" + password + "\"}";
+        String token = login(client, baseUrl, loginBody);
+
+        Map<String, HttpRequest> endpoints = new LinkedHashMap<>();
+        Map<String, Integer> endpointClients = new HashMap<>();
+        endpoints.put("GET /api/menu", HttpRequest.newBuilder(URI.create(baseUrl + "/api/menu")).GET().build());
+        endpoints.put("GET /api/orders", HttpRequest.newBuilder(URI.create(baseUrl + "/api/orders"))
+                .header("Authorization", "Bearer " + token).GET().build());
+        endpoints.put("POST /api/auth/login", HttpRequest.newBuilder(URI.create(baseUrl + "/api/auth/login"))
+                .header("Content-Type", "application/json")
+                .POST(HttpRequest.BodyPublishers.ofString(loginBody)).build());
+        endpointClients.put("POST /api/auth/login", loginClients);
+
+        Files.createDirectories(out.toAbsolutePath().getParent());
+        if (!Files.exists(out)) {
+            Files.writeString(out, "label,endpoint,clients,seconds,ok,errors,error_statuses,throughput_rps,p50_ms,p99_ms,max_ms\n");
+        }
+        for (Map.Entry<String, HttpRequest> endpoint : endpoints.entrySet()) {
+            int endpointClientCount = endpointClients.getOrDefault(endpoint.getKey(), clients);
+            run(client, endpoint.getValue(), endpointClientCount, warmup);
+            Result result = run(client, endpoint.getValue(), endpointClientCount, duration);
+            String line = String.format(Locale.ROOT, "%s,%s,%d,%d,%d,%d,%s,%.1f,%.2f,%.2f,%.2f%n",
+                    label, endpoint.getKey(), endpointClientCount, duration.toSeconds(), result.ok, result.errors,
+                    result.errorStatuses(), result.ok / (double) duration.toSeconds(),
+                    result.percentile(0.50), result.percentile(0.99), result.percentile(1.0));
+            System.out.print(line);
+            Files.writeString(out, line, StandardOpenOption.APPEND);
+        }
+    }
+
+    private static Result run(HttpClient client, HttpRequest request, int clients, Duration duration)
+            throws InterruptedException {
+        long deadline = System.nanoTime() + duration.toNanos();
+        List<Recorder> recorders = new ArrayList<>(clients);
+        CountDownLatch done = new CountDownLatch(clients);
+        for (int i = 0; i < clients; i++) {
+            Recorder recorder = new Recorder();
+            recorders.add(recorder);
+            Thread thread = new Thread(() -> {
+                try {
+                    while (System.nanoTime() < deadline) {
+                        long start = System.nanoTime();
+                        int status;
+                        try {
+                            status = client.send(request, HttpResponse.BodyHandlers.discarding()).statusCode();
+                        } catch (IOException e) {
+                            status = IO_ERROR;
+                        }
+                        recorder.record(System.nanoTime() - start, status);
+                    }
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                } finally {
+                    done.countDown();
+                }
+            }, "load-client-" + i);
+            thread.start();
+        }
+        done.await();
+        return Result.of(recorders);
+    }
+
+    private static String login(HttpClient client, String baseUrl, String body) throws Exception {
+        HttpResponse<String> response = client.send(HttpRequest.newBuilder(URI.create(baseUrl + "/api/auth/login"))
+                .header("Content-Type", "application/json")
+                .POST(HttpRequest.BodyPublishers.ofString(body)).build(), HttpResponse.BodyHandlers.ofString());
+        Matcher matcher = Pattern.compile("\"token\"\\s*:\\s*\"([^\"]+)\"").matcher(response.body());
+        if (response.statusCode() != 200 || !matcher.find()) {
+            throw new IllegalStateException("Login failed with " + response.statusCode() + ": " + response.body());
+        }
+        return matcher.group(1);
+    }
+
+    private static Map<String, String> parse(String[] args) {
+        Map<String, String> options = new HashMap<>();
+        for (String arg : args) {
+            if (arg.startsWith("--") && arg.contains("=")) {
+                options.put(arg.substring(2, arg.indexOf('=')), arg.substring(arg.indexOf('=') + 1));
+            }
+        }
+        return options;
+    }
+
+    // One per client thread, so recording needs no locking; only successful responses are timed
+    private static final class Recorder {
+        private long[] latencies = new long[1 << 14];
+        private int count;
+        private final Map<Integer, Long> errors = new TreeMap<>();
+
+        private void record(long nanos, int status) {
+            if (status == IO_ERROR || status >= 400) {
+                errors.merge(status, 1L, Long::sum);
+                return;
+            }
+            if (count == latencies.length) {
+                latencies = Arrays.copyOf(latencies, count * 2);
+            }
+            latencies[count++] = nanos;
+        }
+    }
+
+    private static final class Result {
+        private final long[] sorted;
+        private final long ok;
+        private final long errors;
+        private final Map<Integer, Long> errorsByStatus;
+
+        private Result(long[] sorted, Map<Integer, Long> errorsByStatus) {
+            this.sorted = sorted;
+            this.ok = sorted.length;
+            this.errors = errorsByStatus.values().stream().mapToLong(Long::longValue).sum();
+            this.errorsByStatus = errorsByStatus;
+        }
+
+        private static Result of(List<Recorder> recorders) {
+            int total = recorders.stream().mapToInt(recorder -> recorder.count).sum();
+            long[] all = new long[total];
+            int offset = 0;
+            Map<Integer, Long> errors = new TreeMap<>();
+            for (Recorder recorder : recorders) {
+                System.arraycopy(recorder.latencies, 0, all, offset, recorder.count);
+                offset += recorder.count;
+                recorder.errors.forEach((status, count) -> errors.merge(status, count, Long::sum));
+            }
+            Arrays.sort(all);
+            return new Result(all, errors);
+        }
+
+        // e.g. "503=120 io=2", space-separated so it stays one CSV field
+        private String errorStatuses() {
+            StringBuilder statuses = new StringBuilder();
+            errorsByStatus.forEach((status, count) -> {
+                if (statuses.length() > 0) {
+                    statuses.append(' ');
+                }
+                statuses.append(status == IO_ERROR ? "io" : String.valueOf(status)).append('=').append(count);
+            });
+            return statuses.toString();
+        }
+
+        private double percentile(double p) {
+            if (sorted.length == 0) {
+                return 0.0;
+            }
+            int index = (int) Math.min(sorted.length - 1, Math.ceil(p * sorted.length) - 1);
+            return sorted[Math.max(0, index)] / 1_000_000.0;
+        }
+    }
+}
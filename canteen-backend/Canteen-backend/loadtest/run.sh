@@ -0,0 +1,50 @@
+#!/usr/bin/env bash
+# Compares platform and virtual threads for the web tier under the same load.
+# Needs JDK 21 and the MySQL database from application.properties.
+#
+#   ./loadtest/run.sh                  # 64 clients, 10s warm-up, 30s per endpoint
+#   CLIENTS=200 DURATION=60 ./loadtest/run.sh
+#
+# The login run uses fewer clients unless LOGIN_CLIENTS is set: no more than the password hashing
+# pool and half its queue (app.auth.hash-threads/hash-queue), so it is not measuring rejections.
+#
+# Results are appended to target/loadtest/results.csv, one row per mode and endpoint.
+set -euo pipefail
+cd "$(dirname "$0")/.."
+
+CLIENTS=${CLIENTS:-64}
+WARMUP=${WARMUP:-10}
+DURATION=${DURATION:-30}
+LOGIN_CLIENTS=${LOGIN_CLIENTS:-}
+PORT=${PORT:-8082}
+OUT=target/loadtest/results.csv
+
+./mvnw -q -P virtual-threads -DskipTests package
+JAR=$(ls target/Canteen-backend-*.jar | grep -v original | head -n 1)
+mkdir -p target/loadtest
+
+run_mode() {
+    local label=$1
+    local profiles=$2
+    java -jar "$JAR" --server.port="$PORT" --spring.profiles.active="$profiles" \
+        > "target/loadtest/$label.log" 2>&1 &
+    local pid=$!
+    trap "kill $pid 2>/dev/null || true" EXIT
+    for _ in $(seq 1 120); do
+        if curl -fs "http://localhost:$PORT/api/menu" > /dev/null; then
+            break
+        fi
+        sleep 1
+    done
+    java loadtest/LoadTest.java --base-url="http://localhost:$PORT" --label="$label" \
+        --clients="$CLIENTS" ${LOGIN_CLIENTS:+--login-clients="$LOGIN_CLIENTS"} \
+        --warmup="$WARMUP" --duration="$DURATION" --out="$OUT"
+    kill "$pid"
+    wait "$pid" 2>/dev/null || true
+    trap - EXIT
+}
+
+run_mode platform default
+run_mode virtual vthreads
+
+echo "Results in $OUT"
@@ -0,0 +1,39 @@
+package com.canteen.Canteen.backend.benchmark;
+
+import com.canteen.Canteen.backend.service.AuthAuditService;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+// Cost of one audit record from several request threads at once; nothing drains, so the ring keeps wrapping
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@Threads(8)
+public class AuthAuditBenchmark {
+
+    private AuthAuditService authAuditService;
+
+    @Setup
+    public void setUp() {
+        authAuditService = new AuthAuditService(4096);
+    }
+
+    @Benchmark
+    public void record() {
+        authAuditService.record(AuthAuditService.Type.USER_LOADED, "admin", "role=ADMIN");
+    }
+}
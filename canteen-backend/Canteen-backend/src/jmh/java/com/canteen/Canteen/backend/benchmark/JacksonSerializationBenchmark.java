@@ -0,0 +1,99 @@
+package com.canteen.Canteen.backend.benchmark;
+
+import com.canteen.Canteen.backend.model.Meal;
+import com.canteen.Canteen.backend.model.Order;
+import com.canteen.Canteen.backend.model.OrderItem;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class JacksonSerializationBenchmark {
+
+    @Param({"10", "100", "1000"})
+    private int size;
+
+    private ObjectMapper objectMapper;
+    private List<Order> orders;
+    private List<Meal> meals;
+
+    @Setup
+    public void setUp() {
+        // Same defaults Spring Boot applies to the MVC ObjectMapper
+        objectMapper = Jackson2ObjectMapperBuilder.json()
+                .featuresToDisable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS)
+                .build();
+        orders = new ArrayList<>(size);
+        meals = new ArrayList<>(size);
+        for (int i = 0; i < size; i++) {
+            orders.add(order(i));
+            meals.add(meal(i));
+        }
+    }
+
+    @Benchmark
+    public byte[] serializeOrders() throws Exception {
+        return objectMapper.writeValueAsBytes(orders);
+    }
+
+    @Benchmark
+    public byte[] serializeMeals() throws Exception {
+        return objectMapper.writeValueAsBytes(meals);
+    }
+
+    private static Order order(int n) {
+        Order order = new Order();
+        order.setId((long) n);
+        order.setUsername("user" + n % 50);
+        order.setOrderDate(LocalDateTime.of(2024, 7, 1, 12, 0).plusMinutes(n));
+        order.setStatus("Pending");
+        BigDecimal total = BigDecimal.ZERO;
+        for (int i = 0; i < 3; i++) {
+            OrderItem item = new OrderItem();
+            item.setId((long) n * 3 + i);
+            item.setOrder(order);
+            item.setMealId(i + 1);
+            item.setMealName("Meal " + (i + 1));
+            item.setQuantity(1 + i);
+            item.setPrice(new BigDecimal("1200"));
+            order.getItems().add(item);
+            total = total.add(item.getPrice().multiply(BigDecimal.valueOf(item.getQuantity())));
+        }
+        order.setTotalAmount(total);
+        return order;
+    }
+
+    private static Meal meal(int n) {
+        Meal meal = new Meal();
+        meal.setId((long) n);
+        meal.setName("Meal " + n);
+        meal.setDescription("Spicy Nigerian jollof rice served with grilled chicken and vegetables");
+        meal.setPrice(new BigDecimal("1500"));
+        meal.setCategory("lunch");
+        meal.setImageUrl("images/jollof-rice-and-chicken.jpg");
+        meal.setAvailable(true);
+        return meal;
+    }
+}
@@ -0,0 +1,74 @@
+package com.canteen.Canteen.backend.benchmark;
+
+import com.canteen.Canteen.backend.security.jwt.JwtUtil;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.security.core.userdetails.User;
+import org.springframework.security.core.userdetails.UserDetails;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.concurrent.TimeUnit;
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class JwtBenchmark {
+
+    private static final int DISTINCT_TOKENS = 1024;
+
+    private JwtUtil jwtUtil;
+    private JwtUtil uncachedJwtUtil;
+    private UserDetails user;
+    private String token;
+    private String[] tokens;
+    private int next;
+
+    @Setup
+    public void setUp() {
+        jwtUtil = newJwtUtil(10_000);
+        // A one-entry cache cycling through distinct tokens pays the full HMAC verification every call
+        uncachedJwtUtil = newJwtUtil(1);
+        user = User.withUsername("admin").password("").roles("ADMIN").build();
+        token = jwtUtil.generateToken("admin", "ADMIN", 0);
+        tokens = new String[DISTINCT_TOKENS];
+        for (int i = 0; i < DISTINCT_TOKENS; i++) {
+            tokens[i] = uncachedJwtUtil.generateToken("admin", "ADMIN", i);
+        }
+    }
+
+    @Benchmark
+    public String generateToken() {
+        return jwtUtil.generateToken("admin", "ADMIN", 0);
+    }
+
+    @Benchmark
+    public Boolean validateTokenCached() {
+        return jwtUtil.validateToken(token, user);
+    }
+
+    @Benchmark
+    public Boolean validateTokenUncached() {
+        next = (next + 1) & (DISTINCT_TOKENS - 1);
+        return uncachedJwtUtil.validateToken(tokens[next], user);
+    }
+
+    private static JwtUtil newJwtUtil(int cacheSize) {
+        JwtUtil util = new JwtUtil();
+        ReflectionTestUtils.setField(util, "secret", "benchmark-secret-key-that-is-at-least-32-bytes");
+        ReflectionTestUtils.setField(util, "expirationMs", 3_600_000L);
+        ReflectionTestUtils.setField(util, "verifiedCacheSize", cacheSize);
+        ReflectionTestUtils.invokeMethod(util, "init");
+        return util;
+    }
+}
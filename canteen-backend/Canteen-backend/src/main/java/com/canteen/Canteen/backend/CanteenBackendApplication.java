@@ -4,10 +4,12 @@ import org.springframework.boot.SpringApplication;
 import org.springframework.boot.autoconfigure.SpringBootApplication;
 import org.springframework.boot.autoconfigure.domain.EntityScan;
 import org.springframework.data.jpa.repository.config.EnableJpaRepositories;
+import org.springframework.scheduling.annotation.EnableScheduling;
 
 @SpringBootApplication
 @EnableJpaRepositories("com.canteen.Canteen.backend.repository")
 @EntityScan("com.canteen.Canteen.backend.model")
+@EnableScheduling
 public class CanteenBackendApplication {
 
     public static void main(String[] args) {
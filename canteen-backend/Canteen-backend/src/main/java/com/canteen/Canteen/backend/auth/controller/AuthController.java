@@ -1,8 +1,11 @@
 package com.canteen.Canteen.backend.auth.controller;
 
+import io.micrometer.core.instrument.MeterRegistry;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
+import org.springframework.transaction.annotation.Transactional;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.PutMapping;
@@ -17,9 +20,14 @@ import com.canteen.Canteen.backend.dto.StaffDTO;
 import com.canteen.Canteen.backend.model.Staff;
 import com.canteen.Canteen.backend.repository.StaffRepository;
 import com.canteen.Canteen.backend.security.jwt.JwtUtil;
+import com.canteen.Canteen.backend.service.AuthAuditService;
 
 import jakarta.servlet.http.HttpServletRequest;
 
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.RejectedExecutionException;
+
 @RestController
 @RequestMapping("/api/auth")
 public class AuthController {
@@ -29,15 +37,43 @@ public class AuthController {
     private StaffRepository staffRepository;
     @Autowired
     private JwtUtil jwtUtil;
+    @Autowired
+    private MeterRegistry meterRegistry;
+    @Autowired
+    private AuthAuditService authAuditService;
 
+    // Completes asynchronously, so the request thread is free while the password is hashed
     @PostMapping("/login")
-    public ResponseEntity<?> login(@RequestBody LoginRequest request) {
+    public CompletableFuture<ResponseEntity<?>> login(@RequestBody LoginRequest request) {
+        CompletableFuture<LoginResponse> login;
         try {
-            LoginResponse response = authService.login(request);
-            return ResponseEntity.ok(response);
+            login = authService.login(request);
         } catch (RuntimeException ex) {
-            return ResponseEntity.status(HttpStatus.UNAUTHORIZED).body(ex.getMessage());
+            recordLogin(AuthAuditService.Type.LOGIN_FAILURE, request.getUsername(), ex.getMessage());
+            return CompletableFuture.completedFuture(ResponseEntity.status(HttpStatus.UNAUTHORIZED).body(ex.getMessage()));
         }
+        return login.<ResponseEntity<?>>thenApply(response -> {
+                    recordLogin(AuthAuditService.Type.LOGIN_SUCCESS, request.getUsername(), null);
+                    return ResponseEntity.ok(response);
+                })
+                .exceptionally(ex -> {
+                    Throwable cause = ex instanceof CompletionException && ex.getCause() != null ? ex.getCause() : ex;
+                    if (cause instanceof RejectedExecutionException) {
+                        recordLogin(AuthAuditService.Type.LOGIN_REJECTED, request.getUsername(), "hashing queue full");
+                        return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE)
+                                .header(HttpHeaders.RETRY_AFTER, "1")
+                                .body("Too many logins in progress, please try again");
+                    }
+                    recordLogin(AuthAuditService.Type.LOGIN_FAILURE, request.getUsername(), cause.getMessage());
+                    return ResponseEntity.status(HttpStatus.UNAUTHORIZED).body(cause.getMessage());
+                });
+    }
+
+    private void recordLogin(AuthAuditService.Type type, String username, String detail) {
+        String outcome = type == AuthAuditService.Type.LOGIN_SUCCESS ? "success"
+                : type == AuthAuditService.Type.LOGIN_REJECTED ? "rejected" : "failure";
+        meterRegistry.counter("canteen.logins", "outcome", outcome).increment();
+        authAuditService.record(type, username, detail);
     }
 
     @GetMapping("/me")
@@ -53,7 +89,9 @@ public class AuthController {
         return ResponseEntity.ok(staff);
     }
 
+    // Transactional so the Staff lookup and the update it decides happen in one transaction
     @PutMapping("/me")
+    @Transactional
     public ResponseEntity<?> updateCurrentUser(@RequestBody StaffDTO updateRequest, HttpServletRequest request) {
         String authHeader = request.getHeader("Authorization");
         if (authHeader == null || !authHeader.startsWith("Bearer ")) {
@@ -5,33 +5,42 @@ import com.canteen.Canteen.backend.dto.LoginRequest;
 import com.canteen.Canteen.backend.model.Staff;
 import com.canteen.Canteen.backend.repository.StaffRepository;
 import com.canteen.Canteen.backend.security.jwt.JwtUtil;
+import com.canteen.Canteen.backend.service.PasswordHashingService;
 import org.springframework.beans.factory.annotation.Autowired;
-import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.stereotype.Service;
 
+import java.util.concurrent.CompletableFuture;
+
 @Service
 public class AuthService {
     @Autowired
     private StaffRepository staffRepository;
     @Autowired
-    private PasswordEncoder passwordEncoder;
+    private PasswordHashingService passwordHashingService;
     @Autowired
     private JwtUtil jwtUtil;
 
-    public LoginResponse login(LoginRequest request) {
+    // The BCrypt check runs on the hashing pool; the future fails with RejectedExecutionException when it is full
+    public CompletableFuture<LoginResponse> login(LoginRequest request) {
         Staff staff = staffRepository.findByUsername(request.getUsername())
                 .orElseThrow(() -> new RuntimeException("Invalid username or password"));
-        if (!passwordEncoder.matches(request.getPassword(), staff.getPassword())) {
-            throw new RuntimeException("Invalid username or password");
-        }
-        String token = jwtUtil.generateToken(staff.getUsername());
-        return new LoginResponse(
-                staff.getUsername(),
-                staff.getName(),
-                staff.getRole(),
-                staff.getDepartment(),
-                staff.getStaffId(),
-                token
-        );
+        return passwordHashingService.matches(request.getPassword(), staff.getPassword())
+                .thenApply(matches -> {
+                    if (!matches) {
+                        throw new RuntimeException("Invalid username or password");
+                    }
+                    String token = jwtUtil.generateToken(
+                            staff.getUsername(),
+                            staff.getRole(),
+                            staff.getTokenEpoch());
+                    return new LoginResponse(
+                            staff.getUsername(),
+                            staff.getName(),
+                            staff.getRole(),
+                            staff.getDepartment(),
+                            staff.getStaffId(),
+                            token
+                    );
+                });
     }
 } 
\ No newline at end of file
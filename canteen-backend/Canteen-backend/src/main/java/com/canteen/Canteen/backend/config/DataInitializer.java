@@ -4,6 +4,7 @@ import com.canteen.Canteen.backend.model.Meal;
 import com.canteen.Canteen.backend.model.Staff;
 import com.canteen.Canteen.backend.repository.MealRepository;
 import com.canteen.Canteen.backend.repository.StaffRepository;
+import com.canteen.Canteen.backend.service.MenuSnapshotService;
 import org.springframework.boot.CommandLineRunner;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.stereotype.Component;
@@ -18,11 +19,14 @@ public class DataInitializer implements CommandLineRunner {
     private final StaffRepository staffRepository;
     private final MealRepository mealRepository;
     private final PasswordEncoder passwordEncoder;
+    private final MenuSnapshotService menuSnapshotService;
 
-    public DataInitializer(StaffRepository staffRepository, MealRepository mealRepository, PasswordEncoder passwordEncoder) {
+    public DataInitializer(StaffRepository staffRepository, MealRepository mealRepository, PasswordEncoder passwordEncoder,
+                           MenuSnapshotService menuSnapshotService) {
         this.staffRepository = staffRepository;
         this.mealRepository = mealRepository;
         this.passwordEncoder = passwordEncoder;
+        this.menuSnapshotService = menuSnapshotService;
     }
 
     @Override
@@ -77,6 +81,9 @@ public class DataInitializer implements CommandLineRunner {
                 mealRepository.save(meal);
             }
         });
+
+        // Publish the seeded menu before the first request builds it lazily
+        menuSnapshotService.refresh();
     }
 
     private Meal newMeal(String name, String description, BigDecimal price, String category, String imageUrl) {
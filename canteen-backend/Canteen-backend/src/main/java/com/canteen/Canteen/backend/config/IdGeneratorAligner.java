@@ -0,0 +1,53 @@
+package com.canteen.Canteen.backend.config;
+
+import jakarta.annotation.PostConstruct;
+import jakarta.persistence.EntityManagerFactory;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+/**
+ * Orders and order items used to get AUTO_INCREMENT ids. Their pooled table
+ * generators must start above every id already in use, so the generator rows
+ * are raised to the current maximum before the web server accepts requests.
+ */
+@Slf4j
+@Component
+public class IdGeneratorAligner {
+
+    public static final String TABLE = "id_generators";
+    public static final int ALLOCATION_SIZE = 50;
+
+    private final JdbcTemplate jdbcTemplate;
+
+    // Depending on the EntityManagerFactory guarantees the migrations have created the generator table
+    public IdGeneratorAligner(JdbcTemplate jdbcTemplate, EntityManagerFactory entityManagerFactory) {
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    @PostConstruct
+    public void align() {
+        align("orders", "orders");
+        align("order_items", "order_items");
+    }
+
+    private void align(String generator, String table) {
+        Long maxId = jdbcTemplate.queryForObject("SELECT COALESCE(MAX(id), 0) FROM " + table, Long.class);
+        // A pooled optimizer may hand out up to one block below the stored value, so leave a full block of headroom
+        long floor = maxId + ALLOCATION_SIZE + 1;
+        int updated = jdbcTemplate.update(
+                "UPDATE " + TABLE + " SET next_val = ? WHERE sequence_name = ? AND next_val < ?",
+                floor, generator, floor);
+        if (updated == 0) {
+            Integer rows = jdbcTemplate.queryForObject(
+                    "SELECT COUNT(*) FROM " + TABLE + " WHERE sequence_name = ?", Integer.class, generator);
+            if (rows == null || rows == 0) {
+                jdbcTemplate.update("INSERT INTO " + TABLE + " (sequence_name, next_val) VALUES (?, ?)", generator, floor);
+                updated = 1;
+            }
+        }
+        if (updated > 0) {
+            log.info("Id generator '{}' raised to {} (max {}.id = {})", generator, floor, table, maxId);
+        }
+    }
+}
@@ -0,0 +1,91 @@
+package com.canteen.Canteen.backend.config;
+
+import com.canteen.Canteen.backend.service.AdmissionControlService;
+import com.canteen.Canteen.backend.service.AuthAuditService;
+import com.canteen.Canteen.backend.service.DashboardMetricsService;
+import com.canteen.Canteen.backend.service.KitchenQueueService;
+import com.canteen.Canteen.backend.service.OrderEventService;
+import com.canteen.Canteen.backend.service.PasswordHashingService;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.FunctionTimer;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Exposes the counters the services already keep as meters, so they show up
+ * on /actuator/prometheus next to the HTTP, Hikari, Hibernate and JVM metrics
+ * that Actuator binds by itself. Meters read the existing fields when scraped;
+ * nothing here adds work to the request path.
+ */
+@Configuration
+public class MetricsConfig {
+
+    @Bean
+    public MeterBinder admissionMetrics(AdmissionControlService admissionControlService) {
+        return registry -> {
+            FunctionCounter.builder("canteen.admission.rejections", admissionControlService,
+                            AdmissionControlService::getRateLimitRejections)
+                    .tag("reason", "rate_limit")
+                    .description("Order and feedback submissions refused by the per-user rate limit")
+                    .register(registry);
+            FunctionCounter.builder("canteen.admission.rejections", admissionControlService,
+                            AdmissionControlService::getBulkheadRejections)
+                    .tag("reason", "bulkhead")
+                    .description("Writes refused because the write bulkhead was full")
+                    .register(registry);
+            Gauge.builder("canteen.admission.writes.in.flight", admissionControlService,
+                            AdmissionControlService::getWritesInFlight)
+                    .register(registry);
+        };
+    }
+
+    @Bean
+    public MeterBinder passwordHashingMetrics(PasswordHashingService passwordHashingService) {
+        return registry -> {
+            Gauge.builder("canteen.auth.hash.queue.depth", passwordHashingService, PasswordHashingService::getQueueDepth)
+                    .description("Login password checks waiting for a hashing thread")
+                    .register(registry);
+            Gauge.builder("canteen.auth.hash.active", passwordHashingService, PasswordHashingService::getActiveHashes)
+                    .register(registry);
+            FunctionTimer.builder("canteen.auth.hash", passwordHashingService,
+                            PasswordHashingService::getHashCount, PasswordHashingService::getHashNanos, TimeUnit.NANOSECONDS)
+                    .description("BCrypt password checks on the hashing pool")
+                    .register(registry);
+            FunctionCounter.builder("canteen.auth.hash.rejections", passwordHashingService,
+                            PasswordHashingService::getRejections)
+                    .register(registry);
+        };
+    }
+
+    @Bean
+    public MeterBinder authAuditMetrics(AuthAuditService authAuditService) {
+        return registry -> {
+            FunctionCounter.builder("canteen.auth.audit.events", authAuditService, AuthAuditService::getRecordedCount)
+                    .register(registry);
+            FunctionCounter.builder("canteen.auth.audit.dropped", authAuditService, AuthAuditService::getDroppedCount)
+                    .description("Audit events overwritten before the drainer logged them")
+                    .register(registry);
+        };
+    }
+
+    @Bean
+    public MeterBinder orderMetrics(DashboardMetricsService dashboardMetricsService,
+                                    OrderEventService orderEventService,
+                                    KitchenQueueService kitchenQueueService) {
+        return registry -> {
+            Gauge.builder("canteen.orders.total", dashboardMetricsService, DashboardMetricsService::getTotalOrders)
+                    .register(registry);
+            Gauge.builder("canteen.orders.revenue.total", dashboardMetricsService,
+                            metrics -> metrics.getTotalRevenue().doubleValue())
+                    .register(registry);
+            Gauge.builder("canteen.orders.stream.subscribers", orderEventService, OrderEventService::getSubscriberCount)
+                    .register(registry);
+            Gauge.builder("canteen.kitchen.active.tickets", kitchenQueueService, KitchenQueueService::getActiveTicketCount)
+                    .register(registry);
+        };
+    }
+}
@@ -0,0 +1,84 @@
+package com.canteen.Canteen.backend.config;
+
+import org.springframework.jdbc.datasource.lookup.AbstractRoutingDataSource;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.interceptor.TransactionAttribute;
+import org.springframework.transaction.support.DefaultTransactionStatus;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import javax.sql.DataSource;
+import java.util.Map;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Hands out replica connections to read-only transactions that asked for the
+ * replica while the lag monitor reports it usable; everything else, including
+ * the read-only transactions Spring Data opens around repository finders and
+ * work outside a transaction, gets a primary connection. A transaction asks
+ * with {@code @Transactional(readOnly = true, label = ReadRoutingDataSource.REPLICA)},
+ * or a TransactionTemplate named {@link #REPLICA}, and only when it starts a
+ * transaction of its own. Must sit behind a LazyConnectionDataSourceProxy so the choice
+ * is made at the first statement, after the transaction manager has called
+ * {@link #markReplicaRead}.
+ */
+public class ReadRoutingDataSource extends AbstractRoutingDataSource {
+
+    public static final String REPLICA = "replica";
+
+    enum Route { PRIMARY, REPLICA }
+
+    // Registered on transactions that may use the replica; suspended and cleared with the transaction
+    private static final TransactionSynchronization REPLICA_READ = new TransactionSynchronization() {};
+
+    private final ReplicaLagMonitor lagMonitor;
+
+    private final LongAdder replicaConnections = new LongAdder();
+    private final LongAdder fallbackConnections = new LongAdder();
+
+    public ReadRoutingDataSource(DataSource primary, DataSource replica, ReplicaLagMonitor lagMonitor) {
+        this.lagMonitor = lagMonitor;
+        setTargetDataSources(Map.of(Route.PRIMARY, primary, Route.REPLICA, replica));
+        setDefaultTargetDataSource(primary);
+        afterPropertiesSet();
+    }
+
+    @Override
+    protected Object determineCurrentLookupKey() {
+        if (!TransactionSynchronizationManager.isCurrentTransactionReadOnly() || !isReplicaRead()) {
+            return Route.PRIMARY;
+        }
+        if (lagMonitor.isReplicaUsable()) {
+            replicaConnections.increment();
+            return Route.REPLICA;
+        }
+        fallbackConnections.increment();
+        return Route.PRIMARY;
+    }
+
+    /**
+     * Called by the transaction manager once a transaction has begun. A finder
+     * joining a caller's transaction is not new, so it keeps the caller's route.
+     */
+    static void markReplicaRead(DefaultTransactionStatus status, TransactionDefinition definition) {
+        if (status.isNewTransaction() && status.isNewSynchronization() && definition.isReadOnly()
+                && asksForReplica(definition)) {
+            TransactionSynchronizationManager.registerSynchronization(REPLICA_READ);
+        }
+    }
+
+    private static boolean asksForReplica(TransactionDefinition definition) {
+        if (definition instanceof TransactionAttribute attribute) {
+            return attribute.getLabels().contains(REPLICA);
+        }
+        return REPLICA.equals(definition.getName());
+    }
+
+    private static boolean isReplicaRead() {
+        return TransactionSynchronizationManager.isSynchronizationActive()
+                && TransactionSynchronizationManager.getSynchronizations().contains(REPLICA_READ);
+    }
+
+    public long getReplicaConnections() { return replicaConnections.sum(); }
+    public long getFallbackConnections() { return fallbackConnections.sum(); }
+}
@@ -0,0 +1,84 @@
+package com.canteen.Canteen.backend.config;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.dao.DataAccessException;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+
+import javax.sql.DataSource;
+import java.util.List;
+
+/**
+ * Measures replica lag with a heartbeat row: each check stamps the current
+ * time into replica_heartbeat on the primary and reads the stamp back from the
+ * replica. The replica is only used while that stamp is younger than
+ * max-lag-ms, which therefore has to be comfortably above the check interval.
+ * Until the first check succeeds, and whenever the replica cannot be queried,
+ * reads stay on the primary.
+ */
+@Slf4j
+public class ReplicaLagMonitor {
+
+    private static final String BEAT_SQL = "UPDATE replica_heartbeat SET beat_millis = ? WHERE id = 1";
+
+    private final JdbcTemplate primary;
+    private final JdbcTemplate replica;
+    private final long maxLagMillis;
+
+    private volatile boolean usable;
+    private volatile long lagMillis = -1L;
+
+    public ReplicaLagMonitor(DataSource primary, DataSource replica, long maxLagMillis) {
+        this.primary = new JdbcTemplate(primary);
+        this.replica = new JdbcTemplate(replica);
+        this.maxLagMillis = maxLagMillis;
+    }
+
+    public boolean isReplicaUsable() { return usable; }
+
+    // -1 while the replica cannot be read
+    public long getLagMillis() { return lagMillis; }
+
+    @Scheduled(fixedDelayString = "${app.datasource.replica.check-interval-ms:1000}")
+    public void check() {
+        long now = System.currentTimeMillis();
+        try {
+            beat(now);
+        } catch (DataAccessException e) {
+            // The replica can still be judged against the last beat that got through
+            log.warn("Could not write replica heartbeat: {}", e.getMessage());
+        }
+        long lag;
+        try {
+            List<Long> beats = replica.queryForList("SELECT beat_millis FROM replica_heartbeat WHERE id = 1", Long.class);
+            lag = beats.isEmpty() ? -1L : Math.max(0L, now - beats.get(0));
+        } catch (DataAccessException e) {
+            lag = -1L;
+        }
+        lagMillis = lag;
+        boolean nowUsable = lag >= 0 && lag <= maxLagMillis;
+        if (nowUsable != usable) {
+            if (nowUsable) {
+                log.info("Read replica in use (lag {} ms)", lag);
+            } else if (lag < 0) {
+                log.warn("Read replica unreachable or not replicating yet; read-only transactions use the primary");
+            } else {
+                log.warn("Read replica {} ms behind (limit {} ms); read-only transactions use the primary", lag, maxLagMillis);
+            }
+            usable = nowUsable;
+        }
+    }
+
+    private void beat(long now) {
+        if (primary.update(BEAT_SQL, now) > 0) {
+            return;
+        }
+        try {
+            primary.update("INSERT INTO replica_heartbeat (id, beat_millis) VALUES (1, ?)", now);
+        } catch (DuplicateKeyException e) {
+            // Another instance created the row first
+            primary.update(BEAT_SQL, now);
+        }
+    }
+}
@@ -0,0 +1,126 @@
+package com.canteen.Canteen.backend.config;
+
+import com.zaxxer.hikari.HikariDataSource;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.flyway.FlywayDataSource;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.boot.autoconfigure.transaction.TransactionManagerCustomizers;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.jdbc.DataSourceBuilder;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Primary;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+import org.springframework.orm.jpa.JpaTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.TransactionManager;
+import org.springframework.transaction.support.DefaultTransactionStatus;
+
+import javax.sql.DataSource;
+
+/**
+ * Primary/replica pools, active only when app.datasource.replica.url is set.
+ * Without it Spring Boot's single auto-configured pool is used as before.
+ * Read-only transactions labelled {@link ReadRoutingDataSource#REPLICA} (the
+ * admin dashboard, reports and sales, the order export) go to the replica
+ * pool, which has its own sizing under app.datasource.replica.hikari.
+ * Migrations, writes and plain repository calls go to the primary, so a page
+ * that reloads after a write sees it.
+ */
+@Configuration
+@ConditionalOnProperty(prefix = "app.datasource.replica", name = "url")
+public class ReplicaRoutingConfig {
+
+    @Bean
+    @FlywayDataSource
+    @ConfigurationProperties("spring.datasource.hikari")
+    public HikariDataSource primaryDataSource(DataSourceProperties properties) {
+        HikariDataSource dataSource = properties.initializeDataSourceBuilder().type(HikariDataSource.class).build();
+        dataSource.setPoolName("primary");
+        return dataSource;
+    }
+
+    @Bean
+    @ConfigurationProperties("app.datasource.replica.hikari")
+    public HikariDataSource replicaDataSource(@Value("${app.datasource.replica.url}") String url,
+                                              @Value("${app.datasource.replica.username:${spring.datasource.username:}}") String username,
+                                              @Value("${app.datasource.replica.password:${spring.datasource.password:}}") String password) {
+        HikariDataSource dataSource = DataSourceBuilder.create()
+                .type(HikariDataSource.class)
+                .url(url)
+                .username(username)
+                .password(password)
+                .build();
+        dataSource.setPoolName("replica");
+        dataSource.setReadOnly(true);
+        return dataSource;
+    }
+
+    @Bean
+    public ReplicaLagMonitor replicaLagMonitor(@Qualifier("primaryDataSource") DataSource primary,
+                                               @Qualifier("replicaDataSource") DataSource replica,
+                                               @Value("${app.datasource.replica.max-lag-ms:5000}") long maxLagMillis) {
+        return new ReplicaLagMonitor(primary, replica, maxLagMillis);
+    }
+
+    @Bean
+    public ReadRoutingDataSource readRoutingDataSource(@Qualifier("primaryDataSource") DataSource primary,
+                                                       @Qualifier("replicaDataSource") DataSource replica,
+                                                       ReplicaLagMonitor replicaLagMonitor) {
+        return new ReadRoutingDataSource(primary, replica, replicaLagMonitor);
+    }
+
+    // What JPA, JdbcTemplate and the transaction manager see
+    @Bean
+    @Primary
+    public DataSource dataSource(ReadRoutingDataSource readRoutingDataSource) {
+        return new LazyConnectionDataSourceProxy(readRoutingDataSource);
+    }
+
+    // Replaces Spring Boot's JPA transaction manager so labelled read-only transactions can be marked
+    @Bean
+    public JpaTransactionManager transactionManager(ObjectProvider<TransactionManagerCustomizers> customizers) {
+        JpaTransactionManager transactionManager = new ReplicaRoutingTransactionManager();
+        // The PlatformTransactionManager overload is deprecated for removal
+        customizers.ifAvailable(c -> c.customize((TransactionManager) transactionManager));
+        return transactionManager;
+    }
+
+    @Bean
+    public MeterBinder replicaMetrics(ReplicaLagMonitor replicaLagMonitor, ReadRoutingDataSource readRoutingDataSource) {
+        return registry -> {
+            Gauge.builder("canteen.datasource.replica.lag", replicaLagMonitor, ReplicaLagMonitor::getLagMillis)
+                    .baseUnit("milliseconds")
+                    .description("Age of the heartbeat read from the replica, -1 while it is unreachable")
+                    .register(registry);
+            Gauge.builder("canteen.datasource.replica.usable", replicaLagMonitor,
+                            monitor -> monitor.isReplicaUsable() ? 1 : 0)
+                    .register(registry);
+            FunctionCounter.builder("canteen.datasource.read.connections", readRoutingDataSource,
+                            ReadRoutingDataSource::getReplicaConnections)
+                    .tag("target", "replica")
+                    .register(registry);
+            FunctionCounter.builder("canteen.datasource.read.connections", readRoutingDataSource,
+                            ReadRoutingDataSource::getFallbackConnections)
+                    .tag("target", "primary_fallback")
+                    .description("Read-only transactions sent to the primary because the replica was lagging or down")
+                    .register(registry);
+        };
+    }
+
+    static class ReplicaRoutingTransactionManager extends JpaTransactionManager {
+        private static final long serialVersionUID = 1L;
+
+        @Override
+        protected void prepareSynchronization(DefaultTransactionStatus status, TransactionDefinition definition) {
+            super.prepareSynchronization(status, definition);
+            ReadRoutingDataSource.markReplicaRead(status, definition);
+        }
+    }
+}
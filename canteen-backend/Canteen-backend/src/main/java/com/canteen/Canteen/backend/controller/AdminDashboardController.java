@@ -1,24 +1,32 @@
 package com.canteen.Canteen.backend.controller;
 
+import com.canteen.Canteen.backend.config.ReadRoutingDataSource;
 import com.canteen.Canteen.backend.dto.AdminDashboardStatsDTO;
+import com.canteen.Canteen.backend.dto.AuthAuditEventDTO;
 import com.canteen.Canteen.backend.dto.ReportDetailsDTO;
 import com.canteen.Canteen.backend.dto.TopSellingItemDTO;
 import com.canteen.Canteen.backend.model.Order;
 import com.canteen.Canteen.backend.repository.OrderRepository;
-import com.canteen.Canteen.backend.repository.StaffRepository;
-import jakarta.persistence.EntityManager;
-import jakarta.persistence.PersistenceContext;
+import com.canteen.Canteen.backend.service.AdmissionControlService;
+import com.canteen.Canteen.backend.service.AuthAuditService;
+import com.canteen.Canteen.backend.service.DashboardMetricsService;
+import com.canteen.Canteen.backend.service.PasswordHashingService;
+import com.canteen.Canteen.backend.service.SalesRollupService;
+import com.canteen.Canteen.backend.service.TopSellersService;
+import com.canteen.Canteen.backend.service.UserActivityService;
 import org.springframework.beans.factory.annotation.Autowired;
-import org.springframework.data.domain.PageRequest;
-import org.springframework.data.domain.Sort;
+import org.springframework.format.annotation.DateTimeFormat;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.transaction.annotation.Transactional;
 import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
 
 import java.math.BigDecimal;
-import java.time.LocalDateTime;
+import java.time.LocalDate;
 import java.util.List;
 import java.util.Map;
 
@@ -31,32 +39,39 @@ public class AdminDashboardController {
     private OrderRepository orderRepository;
 
     @Autowired
-    private StaffRepository staffRepository;
+    private DashboardMetricsService dashboardMetricsService;
 
-    @PersistenceContext
-    private EntityManager entityManager;
+    @Autowired
+    private AdmissionControlService admissionControlService;
 
-    @GetMapping("/stats")
-    public ResponseEntity<AdminDashboardStatsDTO> getDashboardStats() {
-        long totalOrders = orderRepository.count();
-        long totalUsers = staffRepository.count();
+    @Autowired
+    private PasswordHashingService passwordHashingService;
+
+    @Autowired
+    private AuthAuditService authAuditService;
+
+    @Autowired
+    private SalesRollupService salesRollupService;
 
-        // Use the same logic as reports for real-time data
-        LocalDateTime sevenDaysAgo = LocalDateTime.now().minusDays(7);
+    @Autowired
+    private TopSellersService topSellersService;
 
-        // Real-time total revenue (all time)
-        List<Order> allOrders = orderRepository.findAll();
-        BigDecimal totalRevenue = allOrders.stream()
-                .map(Order::getTotalAmount)
-                .reduce(BigDecimal.ZERO, BigDecimal::add);
+    @Autowired
+    private UserActivityService userActivityService;
+
+    @GetMapping("/stats")
+    @Transactional(readOnly = true, label = ReadRoutingDataSource.REPLICA)
+    public ResponseEntity<AdminDashboardStatsDTO> getDashboardStats() {
+        // Totals are maintained incrementally as orders are created and deleted
+        long totalOrders = dashboardMetricsService.getTotalOrders();
+        long totalUsers = dashboardMetricsService.getTotalUsers();
+        BigDecimal totalRevenue = dashboardMetricsService.getTotalRevenue();
 
         // Real-time recent orders (last 5 by date)
-        List<Order> recentOrders = orderRepository.findAll(
-            PageRequest.of(0, 5, Sort.by(Sort.Direction.DESC, "orderDate"))
-        ).getContent();
+        List<Order> recentOrders = orderRepository.findRecentWithItems(5);
 
-        // Real-time top selling items (by quantity)
-        List<TopSellingItemDTO> topItems = orderRepository.findTopSellingItems(PageRequest.of(0, 5));
+        // Top selling items (by quantity) from the in-memory sketch
+        List<TopSellingItemDTO> topItems = topSellersService.top(TopSellersService.Window.ALL_TIME, 5);
 
         AdminDashboardStatsDTO stats = new AdminDashboardStatsDTO(
             totalOrders,
@@ -69,40 +84,112 @@ public class AdminDashboardController {
         return ResponseEntity.ok(stats);
     }
 
+    // Requests turned away by the per-user rate limit and the write bulkhead since startup
+    @GetMapping("/admission")
+    public ResponseEntity<Map<String, Long>> getAdmissionStats() {
+        return ResponseEntity.ok(admissionControlService.getStats());
+    }
+
+    // Login password checks: hashing pool queue depth, hash times and rejections
+    @GetMapping("/password-hashing")
+    public ResponseEntity<Map<String, Long>> getPasswordHashingStats() {
+        return ResponseEntity.ok(passwordHashingService.getStats());
+    }
+
+    // Recent login and token events, newest first, from the in-memory audit ring
+    @GetMapping("/auth-audit")
+    public ResponseEntity<List<AuthAuditEventDTO>> getAuthAudit(
+            @RequestParam(defaultValue = "100") int limit,
+            @RequestParam(required = false) String type,
+            @RequestParam(required = false) String username) {
+        if (limit < 1 || limit > 1000) {
+            return ResponseEntity.badRequest().build();
+        }
+        AuthAuditService.Type eventType = null;
+        if (type != null) {
+            try {
+                eventType = AuthAuditService.Type.valueOf(type.toUpperCase());
+            } catch (IllegalArgumentException e) {
+                return ResponseEntity.badRequest().build();
+            }
+        }
+        return ResponseEntity.ok(authAuditService.recent(limit, eventType, username));
+    }
+
     @GetMapping("/reports")
-    public ResponseEntity<ReportDetailsDTO> getDetailedReports() {
+    @Transactional(readOnly = true, label = ReadRoutingDataSource.REPLICA)
+    public ResponseEntity<ReportDetailsDTO> getDetailedReports(
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to) {
         ReportDetailsDTO report = new ReportDetailsDTO();
 
-        // Sales by day (last 7 days)
-        LocalDateTime sevenDaysAgo = LocalDateTime.now().minusDays(7);
-        List<Map<String, Object>> salesByDay = (List<Map<String, Object>>) (List<?>) entityManager.createQuery(
-            "SELECT NEW map(FUNCTION('DATE', o.orderDate) as date, SUM(o.totalAmount) as total) " +
-            "FROM Order o WHERE o.orderDate >= :sevenDaysAgo GROUP BY FUNCTION('DATE', o.orderDate) ORDER BY date DESC",
-            Map.class
-        ).setParameter("sevenDaysAgo", sevenDaysAgo)
-        .getResultList();
-        report.setSalesByDay(salesByDay);
-
-        // Sales by category
-        List<Map<String, Object>> salesByCategory = (List<Map<String, Object>>) (List<?>) entityManager.createQuery(
-            "SELECT NEW map(m.category as category, SUM(oi.price * oi.quantity) as total) " +
-            "FROM OrderItem oi JOIN Meal m ON oi.mealId = m.id GROUP BY m.category",
-            Map.class
-        ).getResultList();
-        report.setSalesByCategory(salesByCategory);
-
-        // User activity (top 5 users by order count)
-        List<Map<String, Object>> userActivity = (List<Map<String, Object>>) (List<?>) entityManager.createQuery(
-            "SELECT NEW map(o.username as username, COUNT(o.id) as orders) " +
-            "FROM Order o GROUP BY o.username ORDER BY orders DESC",
-            Map.class
-        ).setMaxResults(5).getResultList();
+        // Sales by day from the hourly rollup (last 7 days unless a range is given)
+        LocalDate end = to != null ? to : LocalDate.now();
+        LocalDate start = from != null ? from : end.minusDays(7);
+        report.setSalesByDay(salesRollupService.dailyTotals(start, end));
+
+        // Sales by category from the category rollup; categories are captured on each item at order time
+        report.setSalesByCategory(salesRollupService.categoryTotals());
+
+        // User activity (top 5 users by order count), kept up to date as orders come and go
+        List<Map<String, Object>> userActivity = userActivityService.topUsers(5);
         report.setUserActivity(userActivity);
         
         // Add top selling items
-        List<TopSellingItemDTO> topItems = orderRepository.findTopSellingItems(PageRequest.of(0, 5));
+        List<TopSellingItemDTO> topItems = topSellersService.top(TopSellersService.Window.ALL_TIME, 5);
         report.setTopSellingItems(topItems);
 
         return ResponseEntity.ok(report);
     }
+
+    // Best sellers by quantity for today, the last 7 days or all time
+    @GetMapping("/top-sellers")
+    public ResponseEntity<List<TopSellingItemDTO>> getTopSellers(
+            @RequestParam(defaultValue = "all") String window,
+            @RequestParam(defaultValue = "10") int limit) {
+        if (limit < 1 || limit > 100) {
+            return ResponseEntity.badRequest().build();
+        }
+        TopSellersService.Window range;
+        if ("today".equalsIgnoreCase(window)) {
+            range = TopSellersService.Window.TODAY;
+        } else if ("week".equalsIgnoreCase(window)) {
+            range = TopSellersService.Window.WEEK;
+        } else if ("all".equalsIgnoreCase(window)) {
+            range = TopSellersService.Window.ALL_TIME;
+        } else {
+            return ResponseEntity.badRequest().build();
+        }
+        return ResponseEntity.ok(topSellersService.top(range, limit));
+    }
+
+    // Sales for an inclusive date range, per day or per hour
+    @GetMapping("/sales")
+    @Transactional(readOnly = true, label = ReadRoutingDataSource.REPLICA)
+    public ResponseEntity<List<Map<String, Object>>> getSales(
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to,
+            @RequestParam(defaultValue = "day") String granularity) {
+        if (from.isAfter(to)) {
+            return ResponseEntity.badRequest().build();
+        }
+        if ("hour".equalsIgnoreCase(granularity)) {
+            return ResponseEntity.ok(salesRollupService.hourlyTotals(from, to));
+        }
+        if (!"day".equalsIgnoreCase(granularity)) {
+            return ResponseEntity.badRequest().build();
+        }
+        return ResponseEntity.ok(salesRollupService.dailyTotals(from, to));
+    }
+
+    // Recomputes the sales rollup from the orders table, e.g. after a manual data fix
+    @PostMapping("/rollups/rebuild")
+    public ResponseEntity<Map<String, Integer>> rebuildRollups() {
+        Map<String, Integer> result = Map.of(
+                "buckets", salesRollupService.rebuild(),
+                "categories", salesRollupService.rebuildCategories(),
+                "users", userActivityService.rebuild());
+        topSellersService.rebuild();
+        return ResponseEntity.ok(result);
+    }
 } 
\ No newline at end of file
@@ -0,0 +1,48 @@
+package com.canteen.Canteen.backend.controller;
+
+import com.canteen.Canteen.backend.dto.KitchenTransitionDTO;
+import com.canteen.Canteen.backend.service.KitchenQueueService;
+import com.canteen.Canteen.backend.service.KitchenQueueService.TransitionResult;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.web.bind.annotation.*;
+
+@RestController
+@RequestMapping("/api/kitchen")
+@PreAuthorize("hasRole('ADMIN')")
+public class KitchenController {
+
+    @Autowired
+    private KitchenQueueService kitchenQueueService;
+
+    // Active orders oldest first, served from memory
+    @GetMapping("/board")
+    public ResponseEntity<byte[]> getBoard() {
+        return ResponseEntity.ok()
+                .cacheControl(CacheControl.noStore())
+                .contentType(MediaType.APPLICATION_JSON)
+                .body(kitchenQueueService.boardJson());
+    }
+
+    // Moves a ticket only if it is still in the 'from' status; the database is updated in the background
+    @PutMapping("/{orderId}/status")
+    public ResponseEntity<?> moveTicket(@PathVariable Long orderId, @RequestBody KitchenTransitionDTO transition) {
+        TransitionResult result = kitchenQueueService.transition(orderId, transition.getFrom(), transition.getTo());
+        switch (result) {
+            case MOVED:
+                return ResponseEntity.accepted().build();
+            case NOT_FOUND:
+                return ResponseEntity.notFound().build();
+            case CONFLICT:
+                return ResponseEntity.status(HttpStatus.CONFLICT)
+                        .body("Order " + orderId + " is already " + kitchenQueueService.currentStatus(orderId));
+            default:
+                return ResponseEntity.badRequest()
+                        .body("Cannot move an order from " + transition.getFrom() + " to " + transition.getTo());
+        }
+    }
+}
@@ -3,13 +3,18 @@ package com.canteen.Canteen.backend.controller;
 import com.canteen.Canteen.backend.dto.MealDTO;
 import com.canteen.Canteen.backend.model.Meal;
 import com.canteen.Canteen.backend.repository.MealRepository;
+import com.canteen.Canteen.backend.service.MenuSnapshotService;
+import com.canteen.Canteen.backend.service.MenuSnapshotService.MenuSnapshot;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.transaction.annotation.Transactional;
 import org.springframework.web.bind.annotation.*;
 
-import java.util.List;
-
 @RestController
 @RequestMapping("/api/menu")
 public class MenuController {
@@ -17,13 +22,29 @@ public class MenuController {
     @Autowired
     private MealRepository mealRepository;
 
+    @Autowired
+    private MenuSnapshotService menuSnapshotService;
+
     @GetMapping
-    public List<Meal> getAllMeals() {
-        return mealRepository.findAll();
+    public ResponseEntity<byte[]> getAllMeals(@RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch) {
+        MenuSnapshot snapshot = menuSnapshotService.current();
+        if (snapshot.matches(ifNoneMatch)) {
+            return ResponseEntity.status(HttpStatus.NOT_MODIFIED)
+                    .eTag(snapshot.getEtag())
+                    .cacheControl(CacheControl.noCache())
+                    .build();
+        }
+        return ResponseEntity.ok()
+                .eTag(snapshot.getEtag())
+                .cacheControl(CacheControl.noCache())
+                .contentType(MediaType.APPLICATION_JSON)
+                .body(snapshot.getJson());
     }
 
+    // The write methods are transactional so each lookup and the write it decides commit together
     @PostMapping
     @PreAuthorize("hasRole('ADMIN')")
+    @Transactional
     public Meal addMeal(@RequestBody MealDTO mealDTO) {
         Meal meal = new Meal();
         meal.setName(mealDTO.getName());
@@ -32,11 +53,14 @@ public class MenuController {
         meal.setCategory(mealDTO.getCategory());
         meal.setImageUrl(mealDTO.getImageUrl());
         meal.setAvailable(mealDTO.isAvailable());
-        return mealRepository.save(meal);
+        Meal saved = mealRepository.save(meal);
+        menuSnapshotService.refreshAfterCommit();
+        return saved;
     }
 
     @PutMapping("/{id}")
     @PreAuthorize("hasRole('ADMIN')")
+    @Transactional
     public ResponseEntity<Meal> updateMeal(@PathVariable Long id, @RequestBody MealDTO mealDTO) {
         return mealRepository.findById(id)
                 .map(meal -> {
@@ -46,18 +70,22 @@ public class MenuController {
                     meal.setCategory(mealDTO.getCategory());
                     meal.setImageUrl(mealDTO.getImageUrl());
                     meal.setAvailable(mealDTO.isAvailable());
-                    return ResponseEntity.ok(mealRepository.save(meal));
+                    Meal saved = mealRepository.save(meal);
+                    menuSnapshotService.refreshAfterCommit();
+                    return ResponseEntity.ok(saved);
                 })
                 .orElse(ResponseEntity.notFound().build());
     }
 
     @DeleteMapping("/{id}")
     @PreAuthorize("hasRole('ADMIN')")
+    @Transactional
     public ResponseEntity<Void> deleteMeal(@PathVariable Long id) {
         if (!mealRepository.existsById(id)) {
             return ResponseEntity.notFound().build();
         }
         mealRepository.deleteById(id);
+        menuSnapshotService.refreshAfterCommit();
         return ResponseEntity.noContent().build();
     }
 } 
\ No newline at end of file
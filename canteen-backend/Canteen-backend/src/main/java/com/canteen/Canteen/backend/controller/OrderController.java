@@ -1,88 +1,254 @@
 package com.canteen.Canteen.backend.controller;
 
+import com.canteen.Canteen.backend.dto.OrderCursor;
+import com.canteen.Canteen.backend.dto.OrderItemDTO;
+import com.canteen.Canteen.backend.dto.OrderPageDTO;
 import com.canteen.Canteen.backend.dto.OrderRequestDTO;
 import com.canteen.Canteen.backend.model.Order;
 import com.canteen.Canteen.backend.model.OrderItem;
 import com.canteen.Canteen.backend.repository.OrderRepository;
 import com.canteen.Canteen.backend.security.jwt.JwtUtil;
+import com.canteen.Canteen.backend.service.IdempotencyService;
+import com.canteen.Canteen.backend.service.KitchenQueueService;
+import com.canteen.Canteen.backend.service.MenuSnapshotService;
+import com.canteen.Canteen.backend.service.MenuSnapshotService.MenuEntry;
+import com.canteen.Canteen.backend.service.MenuSnapshotService.MenuIndex;
+import com.canteen.Canteen.backend.service.OrderEventService;
+import com.canteen.Canteen.backend.service.OrderExportService;
+import com.canteen.Canteen.backend.service.OrderService;
+import io.micrometer.core.instrument.MeterRegistry;
 import jakarta.servlet.http.HttpServletRequest;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.ContentDisposition;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.transaction.annotation.Transactional;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 import org.springframework.http.HttpStatus;
 
+import java.io.OutputStream;
 import java.math.BigDecimal;
+import java.time.LocalDate;
 import java.time.LocalDateTime;
+import java.util.concurrent.TimeoutException;
+import java.util.zip.GZIPOutputStream;
+import java.util.ArrayList;
 import java.util.List;
 
 @RestController
 @RequestMapping("/api/orders")
 public class OrderController {
 
+    private static final int DEFAULT_PAGE_SIZE = 20;
+    private static final int MAX_PAGE_SIZE = 100;
+    // Bounds used when no date filter is given; both fit MySQL's DATETIME range
+    private static final LocalDateTime EARLIEST = LocalDateTime.of(1970, 1, 1, 0, 0);
+    private static final LocalDateTime LATEST = LocalDateTime.of(9999, 12, 31, 0, 0);
+
     @Autowired
     private OrderRepository orderRepository;
 
     @Autowired
     private JwtUtil jwtUtil;
 
+    @Autowired
+    private OrderExportService orderExportService;
+
+    @Autowired
+    private MenuSnapshotService menuSnapshotService;
+
+    @Autowired
+    private OrderEventService orderEventService;
+
+    @Autowired
+    private KitchenQueueService kitchenQueueService;
+
+    @Autowired
+    private IdempotencyService idempotencyService;
+
+    @Autowired
+    private OrderService orderService;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
     @PostMapping
-    public ResponseEntity<Order> createOrder(@RequestBody OrderRequestDTO orderRequest, HttpServletRequest request) {
+    public ResponseEntity<?> createOrder(@RequestBody OrderRequestDTO orderRequest,
+                                         @RequestHeader(value = "Idempotency-Key", required = false) String idempotencyKey,
+                                         HttpServletRequest request) {
         String username = getUsernameFromRequest(request);
         if (username == null) {
             return ResponseEntity.status(401).build(); // Unauthorized
         }
+        if (idempotencyKey != null && idempotencyKey.length() > IdempotencyService.MAX_KEY_LENGTH) {
+            return ResponseEntity.badRequest().body("Idempotency-Key is too long");
+        }
+        if (orderRequest.getItems() == null || orderRequest.getItems().isEmpty()) {
+            return ResponseEntity.badRequest().body("Order has no items");
+        }
 
         Order order = new Order();
         order.setUsername(username);
         order.setOrderDate(LocalDateTime.now());
         order.setStatus("Pending");
 
-        List<OrderItem> orderItems = orderRequest.getItems().stream().map(itemDTO -> {
+        // Names and prices come from the in-memory menu index, never from the client
+        MenuIndex menu = menuSnapshotService.current().getIndex();
+        List<OrderItem> orderItems = new ArrayList<>(orderRequest.getItems().size());
+        BigDecimal totalAmount = BigDecimal.ZERO;
+        for (OrderItemDTO itemDTO : orderRequest.getItems()) {
+            if (itemDTO.getMealId() == null || itemDTO.getQuantity() <= 0) {
+                return ResponseEntity.badRequest().body("Each item needs a meal id and a positive quantity");
+            }
+            MenuEntry meal = menu.get(itemDTO.getMealId());
+            if (meal == null) {
+                return ResponseEntity.badRequest().body("Meal " + itemDTO.getMealId() + " is not on the menu");
+            }
+            if (!meal.isAvailable()) {
+                return ResponseEntity.status(HttpStatus.CONFLICT).body(meal.getName() + " is not available");
+            }
+
             OrderItem item = new OrderItem();
             item.setOrder(order);
             item.setMealId(itemDTO.getMealId());
-            item.setMealName(itemDTO.getMealName());
+            item.setMealName(meal.getName());
             item.setQuantity(itemDTO.getQuantity());
-            item.setPrice(itemDTO.getPrice());
-            return item;
-        }).collect(java.util.stream.Collectors.toList());
+            item.setPrice(meal.getPrice());
+            item.setCategory(meal.getCategory());
+            orderItems.add(item);
+            totalAmount = totalAmount.add(meal.getPrice().multiply(BigDecimal.valueOf(itemDTO.getQuantity())));
+        }
 
         order.setItems(orderItems);
-
-        BigDecimal totalAmount = orderItems.stream()
-                .map(item -> item.getPrice().multiply(new BigDecimal(item.getQuantity())))
-                .reduce(BigDecimal.ZERO, BigDecimal::add);
         order.setTotalAmount(totalAmount);
 
-        Order savedOrder = orderRepository.save(order);
+        Order savedOrder;
+        if (idempotencyKey == null || idempotencyKey.isBlank()) {
+            savedOrder = orderService.create(order);
+        } else {
+            // A retry with the same key gets the original order back without a second insert
+            IdempotencyService.Result result;
+            try {
+                result = idempotencyService.createOnce(username, idempotencyKey, () -> orderService.create(order));
+            } catch (TimeoutException e) {
+                return ResponseEntity.status(HttpStatus.CONFLICT).body("An order with this Idempotency-Key is still being processed");
+            }
+            if (result.isReplayed()) {
+                meterRegistry.counter("canteen.orders.submitted", "outcome", "replayed").increment();
+                return ResponseEntity.ok().header("Idempotent-Replayed", "true").body(result.getOrder());
+            }
+            savedOrder = result.getOrder();
+        }
+        meterRegistry.counter("canteen.orders.submitted", "outcome", "created").increment();
         return ResponseEntity.ok(savedOrder);
     }
 
     @GetMapping
-    public ResponseEntity<List<Order>> getOrderHistory(HttpServletRequest request) {
+    public ResponseEntity<OrderPageDTO> getOrderHistory(
+            @RequestParam(required = false) String cursor,
+            @RequestParam(required = false) Integer limit,
+            @RequestParam(required = false) String status,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime from,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime to,
+            HttpServletRequest request) {
         String username = getUsernameFromRequest(request);
-        List<Order> orders = orderRepository.findByUsername(username);
-        return ResponseEntity.ok(orders);
+        if (username == null) {
+            return ResponseEntity.status(HttpStatus.UNAUTHORIZED).build();
+        }
+        OrderCursor position = startingPoint(cursor, to);
+        if (position == null) {
+            return ResponseEntity.badRequest().build();
+        }
+        int pageSize = pageSize(limit);
+        List<Order> orders = orderRepository.findPageWithItemsByUsername(username, status, from != null ? from : EARLIEST,
+                position.getOrderDate(), position.getId(), pageSize + 1);
+        return ResponseEntity.ok(toPage(orders, pageSize));
+    }
+
+    // Live order events: customers get their own orders, admins get every order
+    @GetMapping(path = "/stream", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public ResponseEntity<SseEmitter> streamOrderEvents(HttpServletRequest request) {
+        String username = getUsernameFromRequest(request);
+        if (username == null) {
+            return ResponseEntity.status(HttpStatus.UNAUTHORIZED).build();
+        }
+        SseEmitter emitter = orderEventService.subscribe(username, request.isUserInRole("ADMIN"));
+        return ResponseEntity.ok()
+                .header("X-Accel-Buffering", "no") // keep reverse proxies from buffering the stream
+                .body(emitter);
     }
 
     // --- ADMIN ENDPOINTS ---
 
     @GetMapping("/admin/all")
     @PreAuthorize("hasRole('ADMIN')")
-    public ResponseEntity<List<Order>> getAllOrders() {
-        List<Order> allOrders = orderRepository.findAll();
-        return ResponseEntity.ok(allOrders);
+    public ResponseEntity<OrderPageDTO> getAllOrders(
+            @RequestParam(required = false) String cursor,
+            @RequestParam(required = false) Integer limit,
+            @RequestParam(required = false) String status,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime from,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime to) {
+        OrderCursor position = startingPoint(cursor, to);
+        if (position == null) {
+            return ResponseEntity.badRequest().build();
+        }
+        int pageSize = pageSize(limit);
+        List<Order> orders = orderRepository.findPageWithItems(status, from != null ? from : EARLIEST,
+                position.getOrderDate(), position.getId(), pageSize + 1);
+        return ResponseEntity.ok(toPage(orders, pageSize));
     }
     
+    // Full ledger for finance, streamed from the database as it is read
+    @GetMapping("/admin/export")
+    @PreAuthorize("hasRole('ADMIN')")
+    public ResponseEntity<StreamingResponseBody> exportOrders(
+            @RequestParam(defaultValue = "csv") String format,
+            @RequestParam(defaultValue = "false") boolean gzip) {
+        boolean ndjson = "ndjson".equalsIgnoreCase(format);
+        if (!ndjson && !"csv".equalsIgnoreCase(format)) {
+            return ResponseEntity.badRequest().build();
+        }
+
+        String filename = "orders-" + LocalDate.now() + (ndjson ? ".ndjson" : ".csv") + (gzip ? ".gz" : "");
+        MediaType contentType = gzip
+                ? MediaType.parseMediaType("application/gzip")
+                : MediaType.parseMediaType(ndjson ? "application/x-ndjson" : "text/csv;charset=UTF-8");
+
+        StreamingResponseBody body = outputStream -> {
+            OutputStream out = gzip ? new GZIPOutputStream(outputStream, 1 << 16) : outputStream;
+            if (ndjson) {
+                orderExportService.writeNdjson(out);
+            } else {
+                orderExportService.writeCsv(out);
+            }
+            if (out instanceof GZIPOutputStream) {
+                ((GZIPOutputStream) out).finish();
+            }
+            out.flush();
+        };
+
+        return ResponseEntity.ok()
+                .contentType(contentType)
+                .header(HttpHeaders.CONTENT_DISPOSITION, ContentDisposition.attachment().filename(filename).build().toString())
+                .body(body);
+    }
+
+    // One transaction for the lookup and the status change it decides
     @PutMapping("/admin/{orderId}/status")
     @PreAuthorize("hasRole('ADMIN')")
+    @Transactional
     public ResponseEntity<Order> updateOrderStatus(@PathVariable Long orderId, @RequestBody String newStatus) {
-        return orderRepository.findById(orderId)
+        return orderRepository.findWithItemsById(orderId)
                 .map(order -> {
                     order.setStatus(newStatus);
                     Order updatedOrder = orderRepository.save(order);
+                    orderEventService.orderStatusChanged(updatedOrder);
+                    kitchenQueueService.orderStatusChanged(updatedOrder);
                     return ResponseEntity.ok(updatedOrder);
                 })
                 .orElse(ResponseEntity.notFound().build());
@@ -90,32 +256,62 @@ public class OrderController {
 
 
     @DeleteMapping
-    @Transactional
     public ResponseEntity<Void> clearOrderHistory(HttpServletRequest request) {
         String username = getUsernameFromRequest(request);
-        orderRepository.deleteByUsername(username);
+        orderService.deleteByUsername(username);
         return ResponseEntity.ok().build();
     }
 
     @DeleteMapping("/{orderId}")
+    @Transactional
     public ResponseEntity<Void> deleteOrder(@PathVariable Long orderId, HttpServletRequest request) {
         String username = getUsernameFromRequest(request);
         if (username == null) {
             return ResponseEntity.status(HttpStatus.UNAUTHORIZED).build();
         }
 
-        return orderRepository.findById(orderId)
+        // Items are loaded up front for the category rollup
+        return orderRepository.findWithItemsById(orderId)
                 .map(order -> {
                     if (!order.getUsername().equals(username)) {
                         // User does not own this order
                         return new ResponseEntity<Void>(HttpStatus.FORBIDDEN);
                     }
-                    orderRepository.delete(order);
+                    orderService.delete(order);
                     return ResponseEntity.ok().<Void>build();
                 })
                 .orElse(ResponseEntity.notFound().build());
     }
 
+    // Without a cursor the page starts just before the exclusive 'to' bound; returns null for a malformed cursor
+    private OrderCursor startingPoint(String cursor, LocalDateTime to) {
+        if (cursor == null || cursor.isBlank()) {
+            return new OrderCursor(to != null ? to : LATEST, Long.MIN_VALUE);
+        }
+        try {
+            return OrderCursor.decode(cursor);
+        } catch (IllegalArgumentException e) {
+            return null;
+        }
+    }
+
+    private int pageSize(Integer limit) {
+        if (limit == null || limit <= 0) {
+            return DEFAULT_PAGE_SIZE;
+        }
+        return Math.min(limit, MAX_PAGE_SIZE);
+    }
+
+    // One extra row is fetched to tell whether another page exists
+    private OrderPageDTO toPage(List<Order> orders, int pageSize) {
+        if (orders.size() <= pageSize) {
+            return new OrderPageDTO(orders, null);
+        }
+        List<Order> page = orders.subList(0, pageSize);
+        Order last = page.get(pageSize - 1);
+        return new OrderPageDTO(page, new OrderCursor(last.getOrderDate(), last.getId()).encode());
+    }
+
     private String getUsernameFromRequest(HttpServletRequest request) {
         String authHeader = request.getHeader("Authorization");
         if (authHeader == null || !authHeader.startsWith("Bearer ")) {
@@ -0,0 +1,31 @@
+package com.canteen.Canteen.backend.dto;
+
+import java.time.LocalDateTime;
+
+public class AuthAuditEventDTO {
+    private long sequence;
+    private LocalDateTime timestamp;
+    private String type; // e.g. LOGIN_FAILURE, TOKEN_REJECTED
+    private String username;
+    private String detail;
+
+    public AuthAuditEventDTO(long sequence, LocalDateTime timestamp, String type, String username, String detail) {
+        this.sequence = sequence;
+        this.timestamp = timestamp;
+        this.type = type;
+        this.username = username;
+        this.detail = detail;
+    }
+
+    // Getters and Setters
+    public long getSequence() { return sequence; }
+    public void setSequence(long sequence) { this.sequence = sequence; }
+    public LocalDateTime getTimestamp() { return timestamp; }
+    public void setTimestamp(LocalDateTime timestamp) { this.timestamp = timestamp; }
+    public String getType() { return type; }
+    public void setType(String type) { this.type = type; }
+    public String getUsername() { return username; }
+    public void setUsername(String username) { this.username = username; }
+    public String getDetail() { return detail; }
+    public void setDetail(String detail) { this.detail = detail; }
+}
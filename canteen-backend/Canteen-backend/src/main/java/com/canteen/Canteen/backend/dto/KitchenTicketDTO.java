@@ -0,0 +1,38 @@
+package com.canteen.Canteen.backend.dto;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.List;
+
+public class KitchenTicketDTO {
+    private Long orderId;
+    private String username;
+    private LocalDateTime orderDate;
+    private String status;
+    private List<String> items; // e.g. "2 x Jollof Rice"
+    private BigDecimal totalAmount;
+
+    public KitchenTicketDTO(Long orderId, String username, LocalDateTime orderDate, String status,
+                            List<String> items, BigDecimal totalAmount) {
+        this.orderId = orderId;
+        this.username = username;
+        this.orderDate = orderDate;
+        this.status = status;
+        this.items = items;
+        this.totalAmount = totalAmount;
+    }
+
+    // Getters and Setters
+    public Long getOrderId() { return orderId; }
+    public void setOrderId(Long orderId) { this.orderId = orderId; }
+    public String getUsername() { return username; }
+    public void setUsername(String username) { this.username = username; }
+    public LocalDateTime getOrderDate() { return orderDate; }
+    public void setOrderDate(LocalDateTime orderDate) { this.orderDate = orderDate; }
+    public String getStatus() { return status; }
+    public void setStatus(String status) { this.status = status; }
+    public List<String> getItems() { return items; }
+    public void setItems(List<String> items) { this.items = items; }
+    public BigDecimal getTotalAmount() { return totalAmount; }
+    public void setTotalAmount(BigDecimal totalAmount) { this.totalAmount = totalAmount; }
+}
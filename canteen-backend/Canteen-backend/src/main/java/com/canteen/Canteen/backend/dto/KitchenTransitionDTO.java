@@ -0,0 +1,12 @@
+package com.canteen.Canteen.backend.dto;
+
+public class KitchenTransitionDTO {
+    private String from; // status the client last saw; the move fails if the ticket has moved on
+    private String to;
+
+    // Getters and Setters
+    public String getFrom() { return from; }
+    public void setFrom(String from) { this.from = from; }
+    public String getTo() { return to; }
+    public void setTo(String to) { this.to = to; }
+}
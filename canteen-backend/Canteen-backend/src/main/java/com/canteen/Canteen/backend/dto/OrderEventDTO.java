@@ -0,0 +1,38 @@
+package com.canteen.Canteen.backend.dto;
+
+import com.canteen.Canteen.backend.model.Order;
+
+import java.math.BigDecimal;
+
+// Compact payload pushed on /api/orders/stream; clients fetch the full order only if they need the items
+public class OrderEventDTO {
+    private String type; // "created" or "status"
+    private Long orderId;
+    private String username;
+    private String status;
+    private BigDecimal totalAmount;
+
+    public OrderEventDTO(String type, Order order) {
+        this(type, order.getId(), order.getUsername(), order.getStatus(), order.getTotalAmount());
+    }
+
+    public OrderEventDTO(String type, Long orderId, String username, String status, BigDecimal totalAmount) {
+        this.type = type;
+        this.orderId = orderId;
+        this.username = username;
+        this.status = status;
+        this.totalAmount = totalAmount;
+    }
+
+    // Getters and Setters
+    public String getType() { return type; }
+    public void setType(String type) { this.type = type; }
+    public Long getOrderId() { return orderId; }
+    public void setOrderId(Long orderId) { this.orderId = orderId; }
+    public String getUsername() { return username; }
+    public void setUsername(String username) { this.username = username; }
+    public String getStatus() { return status; }
+    public void setStatus(String status) { this.status = status; }
+    public BigDecimal getTotalAmount() { return totalAmount; }
+    public void setTotalAmount(BigDecimal totalAmount) { this.totalAmount = totalAmount; }
+}
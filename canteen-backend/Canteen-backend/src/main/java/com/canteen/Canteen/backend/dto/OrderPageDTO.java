@@ -0,0 +1,21 @@
+package com.canteen.Canteen.backend.dto;
+
+import com.canteen.Canteen.backend.model.Order;
+
+import java.util.List;
+
+public class OrderPageDTO {
+    private List<Order> items;
+    private String nextCursor; // null on the last page
+
+    public OrderPageDTO(List<Order> items, String nextCursor) {
+        this.items = items;
+        this.nextCursor = nextCursor;
+    }
+
+    // Getters and Setters
+    public List<Order> getItems() { return items; }
+    public void setItems(List<Order> items) { this.items = items; }
+    public String getNextCursor() { return nextCursor; }
+    public void setNextCursor(String nextCursor) { this.nextCursor = nextCursor; }
+}
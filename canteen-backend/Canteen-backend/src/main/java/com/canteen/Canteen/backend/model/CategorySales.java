@@ -0,0 +1,66 @@
+package com.canteen.Canteen.backend.model;
+
+import jakarta.persistence.*;
+import java.io.Serializable;
+import java.math.BigDecimal;
+import java.util.Objects;
+
+// Running revenue per meal category, maintained as orders are created and deleted.
+// A category's totals are the sum over its slots.
+@Entity
+@Table(name = "sales_rollup_category")
+@IdClass(CategorySales.Key.class)
+public class CategorySales {
+
+    @Id
+    @Column(length = 100)
+    private String category;
+
+    @Id
+    @Column(name = "slot")
+    private int slot;
+
+    @Column(nullable = false)
+    private long quantity;
+
+    @Column(nullable = false, precision = 19, scale = 2)
+    private BigDecimal revenue;
+
+    // Getters and Setters
+    public String getCategory() { return category; }
+    public void setCategory(String category) { this.category = category; }
+    public int getSlot() { return slot; }
+    public void setSlot(int slot) { this.slot = slot; }
+    public long getQuantity() { return quantity; }
+    public void setQuantity(long quantity) { this.quantity = quantity; }
+    public BigDecimal getRevenue() { return revenue; }
+    public void setRevenue(BigDecimal revenue) { this.revenue = revenue; }
+
+    public static class Key implements Serializable {
+        private static final long serialVersionUID = 1L;
+
+        private String category;
+        private int slot;
+
+        public Key() {
+        }
+
+        public Key(String category, int slot) {
+            this.category = category;
+            this.slot = slot;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) return true;
+            if (!(o instanceof Key)) return false;
+            Key other = (Key) o;
+            return slot == other.slot && Objects.equals(category, other.category);
+        }
+
+        @Override
+        public int hashCode() {
+            return Objects.hash(category, slot);
+        }
+    }
+}
@@ -1,10 +1,15 @@
 package com.canteen.Canteen.backend.model;
 
 import jakarta.persistence.*;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
+
 import java.math.BigDecimal;
 
 @Entity
 @Table(name = "meals")
+@Cacheable
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = "meals")
 public class Meal {
 
     @Id
@@ -1,5 +1,6 @@
 package com.canteen.Canteen.backend.model;
 
+import com.canteen.Canteen.backend.config.IdGeneratorAligner;
 import com.fasterxml.jackson.annotation.JsonManagedReference;
 import jakarta.persistence.*;
 import java.math.BigDecimal;
@@ -11,8 +12,11 @@ import java.util.List;
 @Table(name = "orders")
 public class Order {
 
+    // Pooled table-backed ids (MySQL has no sequences) so inserts can be JDBC-batched; IDENTITY cannot
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.TABLE, generator = "order_ids")
+    @TableGenerator(name = "order_ids", table = IdGeneratorAligner.TABLE, pkColumnName = "sequence_name",
+            valueColumnName = "next_val", pkColumnValue = "orders", allocationSize = IdGeneratorAligner.ALLOCATION_SIZE)
     private Long id;
 
     @Column(nullable = false)
@@ -27,7 +31,8 @@ public class Order {
     @Column(nullable = false)
     private String status;
 
-    @OneToMany(mappedBy = "order", cascade = CascadeType.ALL, orphanRemoval = true, fetch = FetchType.EAGER)
+    // Lazy so list queries don't issue one SELECT per order; callers that need items fetch-join them
+    @OneToMany(mappedBy = "order", cascade = CascadeType.ALL, orphanRemoval = true, fetch = FetchType.LAZY)
     @JsonManagedReference
     private List<OrderItem> items = new ArrayList<>();
 
@@ -1,5 +1,6 @@
 package com.canteen.Canteen.backend.model;
 
+import com.canteen.Canteen.backend.config.IdGeneratorAligner;
 import com.fasterxml.jackson.annotation.JsonBackReference;
 import jakarta.persistence.*;
 import java.math.BigDecimal;
@@ -8,8 +9,11 @@ import java.math.BigDecimal;
 @Table(name = "order_items")
 public class OrderItem {
 
+    // Pooled table-backed ids (MySQL has no sequences) so inserts can be JDBC-batched; IDENTITY cannot
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.TABLE, generator = "order_item_ids")
+    @TableGenerator(name = "order_item_ids", table = IdGeneratorAligner.TABLE, pkColumnName = "sequence_name",
+            valueColumnName = "next_val", pkColumnValue = "order_items", allocationSize = IdGeneratorAligner.ALLOCATION_SIZE)
     private Long id;
 
     @ManyToOne(fetch = FetchType.LAZY)
@@ -29,6 +33,10 @@ public class OrderItem {
     @Column(nullable = false)
     private BigDecimal price;
 
+    // Meal category at the time of the order; null only for items placed before it was recorded
+    @Column(length = 100)
+    private String category;
+
     // Getters and Setters
     public Long getId() { return id; }
     public void setId(Long id) { this.id = id; }
@@ -42,4 +50,6 @@ public class OrderItem {
     public void setQuantity(int quantity) { this.quantity = quantity; }
     public BigDecimal getPrice() { return price; }
     public void setPrice(BigDecimal price) { this.price = price; }
+    public String getCategory() { return category; }
+    public void setCategory(String category) { this.category = category; }
 } 
\ No newline at end of file
@@ -0,0 +1,75 @@
+package com.canteen.Canteen.backend.model;
+
+import jakarta.persistence.*;
+import java.io.Serializable;
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.Objects;
+
+// Orders and revenue per hour of each day, maintained as orders are created and deleted.
+// An hour's totals are the sum over its slots.
+@Entity
+@Table(name = "sales_rollup_hourly")
+@IdClass(SalesRollup.Key.class)
+public class SalesRollup {
+
+    @Id
+    @Column(name = "bucket_day")
+    private LocalDate day;
+
+    @Id
+    @Column(name = "bucket_hour")
+    private int hour; // 0-23
+
+    @Id
+    @Column(name = "slot")
+    private int slot;
+
+    @Column(name = "order_count", nullable = false)
+    private long orderCount;
+
+    @Column(nullable = false, precision = 19, scale = 2)
+    private BigDecimal revenue;
+
+    // Getters and Setters
+    public LocalDate getDay() { return day; }
+    public void setDay(LocalDate day) { this.day = day; }
+    public int getHour() { return hour; }
+    public void setHour(int hour) { this.hour = hour; }
+    public int getSlot() { return slot; }
+    public void setSlot(int slot) { this.slot = slot; }
+    public long getOrderCount() { return orderCount; }
+    public void setOrderCount(long orderCount) { this.orderCount = orderCount; }
+    public BigDecimal getRevenue() { return revenue; }
+    public void setRevenue(BigDecimal revenue) { this.revenue = revenue; }
+
+    public static class Key implements Serializable {
+        private static final long serialVersionUID = 1L;
+
+        private LocalDate day;
+        private int hour;
+        private int slot;
+
+        public Key() {
+        }
+
+        public Key(LocalDate day, int hour, int slot) {
+            this.day = day;
+            this.hour = hour;
+            this.slot = slot;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) return true;
+            if (!(o instanceof Key)) return false;
+            Key other = (Key) o;
+            return hour == other.hour && slot == other.slot && Objects.equals(day, other.day);
+        }
+
+        @Override
+        public int hashCode() {
+            return Objects.hash(day, hour, slot);
+        }
+    }
+}
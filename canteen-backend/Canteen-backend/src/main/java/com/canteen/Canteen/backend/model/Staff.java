@@ -1,13 +1,25 @@
 // TODO: Refactor to modular monolith structure. This model will be moved to a feature-based package (e.g., user.model) as part of the restructuring.
 package com.canteen.Canteen.backend.model;
 
+import com.canteen.Canteen.backend.security.StaffTokenRevocationListener;
+import com.canteen.Canteen.backend.service.StaffMetricsListener;
+import jakarta.persistence.Cacheable;
 import jakarta.persistence.Column;
 import jakarta.persistence.Entity;
+import jakarta.persistence.EntityListeners;
 import jakarta.persistence.Id;
+import jakarta.persistence.PostLoad;
+import jakarta.persistence.PostPersist;
 import jakarta.persistence.Table;
+import jakarta.persistence.Transient;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
 
 @Entity
 @Table(name = "staff")
+@EntityListeners({StaffTokenRevocationListener.class, StaffMetricsListener.class})
+@Cacheable
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = "staff")
 public class Staff {
 
     @Id
@@ -31,6 +43,14 @@ public class Staff {
     @Column(name = "staff_id", nullable = false, unique = true, length = 20)
     private String staffId;
 
+    // Tokens issued with a lower epoch are rejected; bumped when the role changes
+    @Column(name = "token_epoch", nullable = false)
+    private long tokenEpoch;
+
+    // Role as last read from or written to the database, used to detect role changes
+    @Transient
+    private String loadedRole;
+
     // Constructors
     public Staff() {
     }
@@ -69,6 +89,10 @@ public class Staff {
         return this.staffId;
     }
 
+    public long getTokenEpoch() {
+        return this.tokenEpoch;
+    }
+
     // Setters
     public void setUsername(String username) {
         this.username = username;
@@ -94,6 +118,20 @@ public class Staff {
         this.staffId = staffId;
     }
 
+    @PostLoad
+    @PostPersist
+    public void markRoleLoaded() {
+        this.loadedRole = this.role;
+    }
+
+    public boolean roleChangedSinceLoad() {
+        return loadedRole != null && !loadedRole.equalsIgnoreCase(role);
+    }
+
+    public void revokeTokens() {
+        this.tokenEpoch++;
+    }
+
     // Builder pattern
     public static StaffBuilder builder() {
         return new StaffBuilder();
@@ -0,0 +1,17 @@
+package com.canteen.Canteen.backend.repository;
+
+import com.canteen.Canteen.backend.model.CategorySales;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.stereotype.Repository;
+
+import java.util.List;
+import java.util.Map;
+
+@Repository
+public interface CategorySalesRepository extends JpaRepository<CategorySales, CategorySales.Key> {
+
+    @Query("SELECT NEW map(c.category as category, SUM(c.revenue) as total, SUM(c.quantity) as quantity) " +
+           "FROM CategorySales c GROUP BY c.category ORDER BY SUM(c.revenue) DESC")
+    List<Map<String, Object>> findTotals();
+}
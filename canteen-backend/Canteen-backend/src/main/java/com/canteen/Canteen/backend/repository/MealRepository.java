@@ -1,12 +1,17 @@
 package com.canteen.Canteen.backend.repository;
 
 import com.canteen.Canteen.backend.model.Meal;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.stereotype.Repository;
 
 import java.util.Optional;
 
 @Repository
 public interface MealRepository extends JpaRepository<Meal, Long> {
+    // Served from the query cache until the table is written again
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_CACHEABLE, value = "true"))
     Optional<Meal> findByName(String name);
 } 
\ No newline at end of file
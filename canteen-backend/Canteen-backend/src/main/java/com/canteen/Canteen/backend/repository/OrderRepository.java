@@ -1,19 +1,108 @@
 package com.canteen.Canteen.backend.repository;
 
 import com.canteen.Canteen.backend.model.Order;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
 import com.canteen.Canteen.backend.dto.TopSellingItemDTO;
 import org.springframework.data.domain.Pageable;
 
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.Optional;
 
 @Repository
 public interface OrderRepository extends JpaRepository<Order, Long> {
     List<Order> findByUsername(String username);
-    void deleteByUsername(String username);
+    List<Order> deleteByUsername(String username);
+
+    @EntityGraph(attributePaths = "items")
+    Optional<Order> findWithItemsById(Long id);
+
+    @Query("SELECT COALESCE(SUM(o.totalAmount), 0) FROM Order o")
+    BigDecimal sumTotalAmount();
+
+    // Keyset pages ordered newest first; the cursor is the (orderDate, id) of the last row already returned
+    @Query("SELECT o.id FROM Order o WHERE o.username = :username " +
+           "AND (:status IS NULL OR o.status = :status) AND o.orderDate >= :from " +
+           "AND (o.orderDate < :cursorDate OR (o.orderDate = :cursorDate AND o.id < :cursorId)) " +
+           "ORDER BY o.orderDate DESC, o.id DESC")
+    List<Long> findPageIdsByUsername(@Param("username") String username,
+                                     @Param("status") String status,
+                                     @Param("from") LocalDateTime from,
+                                     @Param("cursorDate") LocalDateTime cursorDate,
+                                     @Param("cursorId") long cursorId,
+                                     Pageable pageable);
+
+    @Query("SELECT o.id FROM Order o WHERE (:status IS NULL OR o.status = :status) AND o.orderDate >= :from " +
+           "AND (o.orderDate < :cursorDate OR (o.orderDate = :cursorDate AND o.id < :cursorId)) " +
+           "ORDER BY o.orderDate DESC, o.id DESC")
+    List<Long> findPageIds(@Param("status") String status,
+                           @Param("from") LocalDateTime from,
+                           @Param("cursorDate") LocalDateTime cursorDate,
+                           @Param("cursorId") long cursorId,
+                           Pageable pageable);
+
+    @Query("SELECT o.id FROM Order o ORDER BY o.orderDate DESC, o.id DESC")
+    List<Long> findRecentIds(Pageable pageable);
+
+    @Query("SELECT DISTINCT o FROM Order o LEFT JOIN FETCH o.items WHERE o.id IN :ids")
+    List<Order> findAllWithItemsByIdIn(@Param("ids") Collection<Long> ids);
+
+    // Paging a collection fetch join would make Hibernate page in memory, so each list is
+    // loaded as one id query for the page plus one fetch-join query for the orders and items
+    default List<Order> findPageWithItemsByUsername(String username, String status, LocalDateTime from,
+                                                    LocalDateTime cursorDate, long cursorId, int limit) {
+        return loadWithItems(findPageIdsByUsername(username, status, from, cursorDate, cursorId, PageRequest.of(0, limit)));
+    }
+
+    default List<Order> findPageWithItems(String status, LocalDateTime from,
+                                          LocalDateTime cursorDate, long cursorId, int limit) {
+        return loadWithItems(findPageIds(status, from, cursorDate, cursorId, PageRequest.of(0, limit)));
+    }
+
+    default List<Order> findRecentWithItems(int limit) {
+        return loadWithItems(findRecentIds(PageRequest.of(0, limit)));
+    }
+
+    // Returns the orders in the same order as the ids
+    default List<Order> loadWithItems(List<Long> ids) {
+        if (ids.isEmpty()) {
+            return new ArrayList<>();
+        }
+        Map<Long, Order> byId = new HashMap<>();
+        for (Order order : findAllWithItemsByIdIn(ids)) {
+            byId.put(order.getId(), order);
+        }
+        List<Order> ordered = new ArrayList<>(ids.size());
+        for (Long id : ids) {
+            Order order = byId.get(id);
+            if (order != null) {
+                ordered.add(order);
+            }
+        }
+        return ordered;
+    }
+
+    @Query("SELECT DISTINCT o FROM Order o LEFT JOIN FETCH o.items WHERE o.status IN :statuses")
+    List<Order> findAllWithItemsByStatusIn(@Param("statuses") Collection<String> statuses);
+
+    // Status-only write that skips loading the order and its items
+    @Transactional
+    @Modifying
+    @Query("UPDATE Order o SET o.status = :status WHERE o.id = :id")
+    int updateStatus(@Param("id") Long id, @Param("status") String status);
 
     @Query("SELECT new com.canteen.Canteen.backend.dto.TopSellingItemDTO(oi.mealName, SUM(oi.quantity)) FROM OrderItem oi GROUP BY oi.mealName ORDER BY SUM(oi.quantity) DESC")
     List<TopSellingItemDTO> findTopSellingItems(Pageable pageable);
-} 
\ No newline at end of file
+}
@@ -0,0 +1,24 @@
+package com.canteen.Canteen.backend.repository;
+
+import com.canteen.Canteen.backend.model.SalesRollup;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Map;
+
+@Repository
+public interface SalesRollupRepository extends JpaRepository<SalesRollup, SalesRollup.Key> {
+
+    // At most 24 hours of a few slots each per day, read through the primary key range
+    @Query("SELECT NEW map(r.day as date, SUM(r.revenue) as total, SUM(r.orderCount) as orders) " +
+           "FROM SalesRollup r WHERE r.day BETWEEN :from AND :to GROUP BY r.day ORDER BY r.day DESC")
+    List<Map<String, Object>> findDailyTotals(@Param("from") LocalDate from, @Param("to") LocalDate to);
+
+    @Query("SELECT NEW map(r.day as date, r.hour as hour, SUM(r.revenue) as total, SUM(r.orderCount) as orders) " +
+           "FROM SalesRollup r WHERE r.day BETWEEN :from AND :to GROUP BY r.day, r.hour ORDER BY r.day DESC, r.hour DESC")
+    List<Map<String, Object>> findHourlyTotals(@Param("from") LocalDate from, @Param("to") LocalDate to);
+}
@@ -0,0 +1,9 @@
+package com.canteen.Canteen.backend.repository;
+
+import com.canteen.Canteen.backend.model.UserOrderStats;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.stereotype.Repository;
+
+@Repository
+public interface UserOrderStatsRepository extends JpaRepository<UserOrderStats, String> {
+}
@@ -1,11 +1,16 @@
 package com.canteen.Canteen.backend.security;
 
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.servlet.DispatcherType;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.boot.CommandLineRunner;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.security.authentication.AuthenticationManager;
 import org.springframework.security.authentication.AuthenticationProvider;
 import org.springframework.security.authentication.dao.DaoAuthenticationProvider;
+import org.springframework.security.authorization.AuthorityAuthorizationManager;
+import org.springframework.security.authorization.AuthorizationManagers;
 import org.springframework.security.config.annotation.authentication.configuration.AuthenticationConfiguration;
 import org.springframework.security.config.annotation.method.configuration.EnableMethodSecurity;
 import org.springframework.security.config.annotation.web.builders.HttpSecurity;
@@ -19,6 +24,9 @@ import org.springframework.web.cors.CorsConfigurationSource;
 
 import com.canteen.Canteen.backend.security.jwt.JwtAuthenticationFilter;
 import com.canteen.Canteen.backend.security.jwt.JwtUtil;
+import com.canteen.Canteen.backend.security.jwt.TokenEpochService;
+import com.canteen.Canteen.backend.service.AdmissionControlService;
+import com.canteen.Canteen.backend.service.AuthAuditService;
 import com.canteen.Canteen.backend.service.CustomUserDetailsService;
 
 @Configuration
@@ -30,21 +38,36 @@ public class SecurityConfig {
     private final CustomUserDetailsService userDetailsService;
     private final PasswordEncoder passwordEncoder;
     private final JwtUtil jwtUtil;
+    private final TokenEpochService tokenEpochService;
     private final CorsConfigurationSource corsConfigurationSource;
+    private final AdmissionControlService admissionControlService;
+    private final AuthAuditService authAuditService;
+    private final MeterRegistry meterRegistry;
+    private final String metricsScrapeToken;
 
     public SecurityConfig(CustomUserDetailsService userDetailsService,
                          PasswordEncoder passwordEncoder,
                          JwtUtil jwtUtil,
-                         CorsConfigurationSource corsConfigurationSource) {
+                         TokenEpochService tokenEpochService,
+                         CorsConfigurationSource corsConfigurationSource,
+                         AdmissionControlService admissionControlService,
+                         AuthAuditService authAuditService,
+                         MeterRegistry meterRegistry,
+                         @Value("${app.metrics.scrape-token:}") String metricsScrapeToken) {
         this.userDetailsService = userDetailsService;
         this.passwordEncoder = passwordEncoder;
         this.jwtUtil = jwtUtil;
+        this.tokenEpochService = tokenEpochService;
         this.corsConfigurationSource = corsConfigurationSource;
+        this.admissionControlService = admissionControlService;
+        this.authAuditService = authAuditService;
+        this.meterRegistry = meterRegistry;
+        this.metricsScrapeToken = metricsScrapeToken;
     }
 
     @Bean
     public JwtAuthenticationFilter jwtAuthenticationFilter() {
-        return new JwtAuthenticationFilter(jwtUtil, userDetailsService);
+        return new JwtAuthenticationFilter(jwtUtil, tokenEpochService, authAuditService, meterRegistry);
     }
 
     @Bean
@@ -67,6 +90,12 @@ public class SecurityConfig {
             .csrf(AbstractHttpConfigurer::disable)
             .sessionManagement(session -> session.sessionCreationPolicy(SessionCreationPolicy.STATELESS))
             .authorizeHttpRequests(auth -> auth
+                // Async dispatches (SSE, streamed exports) resume a request that was already authorized
+                .dispatcherTypeMatchers(DispatcherType.ASYNC).permitAll()
+                // Metrics reveal traffic and internals: admins, or a scraper holding app.metrics.scrape-token
+                .requestMatchers("/actuator/prometheus").access(AuthorizationManagers.anyOf(
+                    AuthorityAuthorizationManager.hasRole("ADMIN"),
+                    new ScrapeTokenAuthorizationManager(metricsScrapeToken)))
                 .requestMatchers(
                     "/api/auth/**",
                     "/api/test/**",
@@ -93,6 +122,7 @@ public class SecurityConfig {
                     "/*.js",
                     "/home.html",
                     "/api/menu",
+                    "/actuator/health",
                     "/",
                     "/error"
                 ).permitAll()
@@ -100,7 +130,9 @@ public class SecurityConfig {
             )
             .headers(headers -> headers.frameOptions(fo -> fo.disable()))
             .authenticationProvider(authenticationProvider())
-            .addFilterBefore(jwtAuthenticationFilter(), UsernamePasswordAuthenticationFilter.class);
+            .addFilterBefore(jwtAuthenticationFilter(), UsernamePasswordAuthenticationFilter.class)
+            // Not a bean, so it only runs inside the security chain after the user is known
+            .addFilterAfter(new AdmissionControlFilter(admissionControlService), JwtAuthenticationFilter.class);
 
         return http.build();
     }
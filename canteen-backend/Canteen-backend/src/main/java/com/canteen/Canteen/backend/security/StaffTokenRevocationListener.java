@@ -0,0 +1,17 @@
+package com.canteen.Canteen.backend.security;
+
+import com.canteen.Canteen.backend.model.Staff;
+import jakarta.persistence.PreUpdate;
+
+// Tokens carry the role, so a role change must retire the user's outstanding tokens. The epoch is bumped
+// in the same UPDATE as the role; a removed user has no row left for any token to match.
+public class StaffTokenRevocationListener {
+
+    @PreUpdate
+    public void beforeUpdate(Staff staff) {
+        if (staff.roleChangedSinceLoad()) {
+            staff.revokeTokens();
+            staff.markRoleLoaded();
+        }
+    }
+}
@@ -1,8 +1,13 @@
 package com.canteen.Canteen.backend.security.jwt;
 
-import com.canteen.Canteen.backend.service.CustomUserDetailsService;
+import com.canteen.Canteen.backend.service.AuthAuditService;
+import io.jsonwebtoken.Claims;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
 import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
 import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.security.core.userdetails.User;
 import org.springframework.security.core.userdetails.UserDetails;
 import org.springframework.security.web.authentication.WebAuthenticationDetailsSource;
 import org.springframework.stereotype.Component;
@@ -13,17 +18,28 @@ import jakarta.servlet.ServletException;
 import jakarta.servlet.http.HttpServletRequest;
 import jakarta.servlet.http.HttpServletResponse;
 import java.io.IOException;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
 import org.springframework.lang.NonNull;
 
 @Component
 public class JwtAuthenticationFilter extends OncePerRequestFilter {
 
     private final JwtUtil jwtUtil;
-    private final CustomUserDetailsService userDetailsService;
+    private final TokenEpochService tokenEpochService;
+    private final AuthAuditService authAuditService;
 
-    public JwtAuthenticationFilter(JwtUtil jwtUtil, CustomUserDetailsService userDetailsService) {
+    // Time spent in this filter per bearer-token request, split into token parsing and user resolution
+    private final Timer parseTimer;
+    private final Timer resolveTimer;
+
+    public JwtAuthenticationFilter(JwtUtil jwtUtil, TokenEpochService tokenEpochService,
+                                   AuthAuditService authAuditService, MeterRegistry meterRegistry) {
         this.jwtUtil = jwtUtil;
-        this.userDetailsService = userDetailsService;
+        this.tokenEpochService = tokenEpochService;
+        this.authAuditService = authAuditService;
+        this.parseTimer = Timer.builder("canteen.auth.filter").tag("phase", "parse").register(meterRegistry);
+        this.resolveTimer = Timer.builder("canteen.auth.filter").tag("phase", "resolve").register(meterRegistry);
     }
 
     @Override
@@ -39,18 +55,21 @@ public class JwtAuthenticationFilter extends OncePerRequestFilter {
             return;
         }
         final String authorizationHeader = request.getHeader("Authorization");
-        String username = null;
-        String jwt = null;
+        Claims claims = null;
 
         if (authorizationHeader != null && authorizationHeader.startsWith("Bearer ")) {
-            jwt = authorizationHeader.substring(7);
-            username = jwtUtil.extractUsername(jwt);
+            // Single verification per request; later lookups hit JwtUtil's verified-token cache
+            long start = System.nanoTime();
+            claims = jwtUtil.parseClaims(authorizationHeader.substring(7));
+            parseTimer.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
         }
 
-        if (username != null && SecurityContextHolder.getContext().getAuthentication() == null) {
-            UserDetails userDetails = this.userDetailsService.loadUserByUsername(username);
-            
-            if (jwtUtil.validateToken(jwt, userDetails)) {
+        if (claims != null && claims.getSubject() != null && SecurityContextHolder.getContext().getAuthentication() == null) {
+            long start = System.nanoTime();
+            UserDetails userDetails = resolveUser(claims);
+            resolveTimer.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+
+            if (userDetails != null && jwtUtil.validateClaims(claims, userDetails)) {
                 UsernamePasswordAuthenticationToken authentication = new UsernamePasswordAuthenticationToken(
                         userDetails, null, userDetails.getAuthorities());
                 authentication.setDetails(new WebAuthenticationDetailsSource().buildDetails(request));
@@ -59,4 +78,21 @@ public class JwtAuthenticationFilter extends OncePerRequestFilter {
         }
         filterChain.doFilter(request, response);
     }
+
+    private UserDetails resolveUser(Claims claims) {
+        String username = claims.getSubject();
+        String role = claims.get(JwtUtil.ROLE_CLAIM, String.class);
+        Object epoch = claims.get(JwtUtil.EPOCH_CLAIM);
+
+        if (role == null || !(epoch instanceof Number)) {
+            // Issued before roles and epochs were embedded, so it cannot be checked for revocation
+            authAuditService.record(AuthAuditService.Type.TOKEN_REJECTED, username, "no epoch");
+            return null;
+        }
+        if (!tokenEpochService.isCurrent(username, ((Number) epoch).longValue())) {
+            authAuditService.record(AuthAuditService.Type.TOKEN_REJECTED, username, "revoked");
+            return null;
+        }
+        return new User(username, "", List.of(new SimpleGrantedAuthority("ROLE_" + role)));
+    }
 }
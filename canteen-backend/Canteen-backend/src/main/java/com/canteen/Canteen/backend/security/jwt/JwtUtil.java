@@ -2,26 +2,53 @@ package com.canteen.Canteen.backend.security.jwt;
 
 import io.jsonwebtoken.*;
 import io.jsonwebtoken.security.Keys;
-import io.jsonwebtoken.security.SignatureException;
+import jakarta.annotation.PostConstruct;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.security.core.userdetails.UserDetails;
 import org.springframework.stereotype.Component;
 
+import java.nio.charset.StandardCharsets;
 import java.security.Key;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Base64;
 import java.util.Date;
 import java.util.HashMap;
+import java.util.Iterator;
 import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.function.Function;
 
 @Component
 public class JwtUtil {
 
+    public static final String ROLE_CLAIM = "role";
+    public static final String EPOCH_CLAIM = "ep";
+
     @Value("${app.jwt.secret:your-256-bit-secret}")
     private String secret;
 
     @Value("${app.jwt.expiration:86400000}") // 24 hours
     private Long expirationMs;
 
+    @Value("${app.jwt.verified-cache-size:10000}")
+    private int verifiedCacheSize = 10000;
+
+    // Key and parser are immutable and thread-safe, so they are built once
+    private Key signingKey;
+    private JwtParser parser;
+
+    // SHA-256 of the token -> claims that already passed signature verification
+    private final Map<String, VerifiedToken> verifiedTokens = new ConcurrentHashMap<>();
+
+    @PostConstruct
+    void init() {
+        signingKey = buildSigningKey();
+        parser = Jwts.parserBuilder()
+                .setSigningKey(signingKey)
+                .build();
+    }
+
     public String extractUsername(String token) {
         return extractClaim(token, Claims::getSubject);
     }
@@ -35,68 +62,100 @@ public class JwtUtil {
         return claimsResolver.apply(claims);
     }
 
+    /**
+     * Verifies the token and returns its claims, or null if the token is
+     * malformed, badly signed or expired. Repeated calls with the same token
+     * are served from the verified-token cache.
+     */
+    public Claims parseClaims(String token) {
+        try {
+            return extractAllClaims(token);
+        } catch (JwtException | IllegalArgumentException e) {
+            return null;
+        }
+    }
+
     private Claims extractAllClaims(String token) {
-        return Jwts.parserBuilder()
-                .setSigningKey(getSigningKey())
-                .build()
-                .parseClaimsJws(token)
-                .getBody();
+        if (token == null || token.isEmpty()) {
+            throw new IllegalArgumentException("JWT token is empty");
+        }
+        String key = hash(token);
+        VerifiedToken cached = verifiedTokens.get(key);
+        long now = System.currentTimeMillis();
+        if (cached != null) {
+            if (cached.expiresAt > now) {
+                return cached.claims;
+            }
+            // Fall through so the parser raises the usual ExpiredJwtException
+            verifiedTokens.remove(key);
+        }
+
+        Claims claims = parser.parseClaimsJws(token).getBody();
+        Date expiration = claims.getExpiration();
+        if (expiration != null) {
+            if (verifiedTokens.size() >= verifiedCacheSize) {
+                evict(now);
+            }
+            verifiedTokens.put(key, new VerifiedToken(claims, expiration.getTime()));
+        }
+        return claims;
     }
 
-    private Boolean isTokenExpired(String token) {
-        return extractExpiration(token).before(new Date());
+    private void evict(long now) {
+        verifiedTokens.values().removeIf(entry -> entry.expiresAt <= now);
+        // Still full of live tokens: drop an arbitrary tenth to make room
+        int excess = verifiedTokens.size() - (verifiedCacheSize - verifiedCacheSize / 10);
+        Iterator<String> keys = verifiedTokens.keySet().iterator();
+        while (excess-- > 0 && keys.hasNext()) {
+            keys.next();
+            keys.remove();
+        }
     }
 
-    public String generateToken(String username) {
+    private static String hash(String token) {
+        try {
+            byte[] digest = MessageDigest.getInstance("SHA-256").digest(token.getBytes(StandardCharsets.UTF_8));
+            return Base64.getEncoder().encodeToString(digest);
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 not available", e);
+        }
+    }
+
+    // Embeds the role and token epoch so requests can be authenticated from the claims alone
+    public String generateToken(String username, String role, long epoch) {
         Map<String, Object> claims = new HashMap<>();
+        claims.put(ROLE_CLAIM, role.toUpperCase());
+        claims.put(EPOCH_CLAIM, epoch);
         return createToken(claims, username);
     }
 
     private String createToken(Map<String, Object> claims, String subject) {
+        long now = System.currentTimeMillis();
         return Jwts.builder()
                 .setClaims(claims)
                 .setSubject(subject)
-                .setIssuedAt(new Date(System.currentTimeMillis()))
-                .setExpiration(new Date(System.currentTimeMillis() + expirationMs))
-                .signWith(getSigningKey(), SignatureAlgorithm.HS256)
+                .setIssuedAt(new Date(now))
+                .setExpiration(new Date(now + expirationMs))
+                .signWith(signingKey, SignatureAlgorithm.HS256)
                 .compact();
     }
 
     public Boolean validateToken(String token, UserDetails userDetails) {
-        try {
-            final String username = extractUsername(token);
-            return (username.equals(userDetails.getUsername()) && !isTokenExpired(token));
-        } catch (SignatureException e) {
-            // Invalid JWT signature
-            return false;
-        } catch (MalformedJwtException e) {
-            // Invalid JWT token
-            return false;
-        } catch (ExpiredJwtException e) {
-            // Expired JWT token
-            return false;
-        } catch (UnsupportedJwtException e) {
-            // Unsupported JWT token
-            return false;
-        } catch (IllegalArgumentException e) {
-            // JWT claims string is empty
-            return false;
-        }
+        Claims claims = parseClaims(token);
+        return claims != null && validateClaims(claims, userDetails);
+    }
+
+    public boolean validateClaims(Claims claims, UserDetails userDetails) {
+        Date expiration = claims.getExpiration();
+        return userDetails.getUsername().equals(claims.getSubject())
+                && (expiration == null || expiration.after(new Date()));
     }
 
     public boolean isTokenValid(String token) {
-        try {
-            Jwts.parserBuilder()
-                .setSigningKey(getSigningKey())
-                .build()
-                .parseClaimsJws(token);
-            return true;
-        } catch (Exception e) {
-            return false;
-        }
+        return parseClaims(token) != null;
     }
 
-    private Key getSigningKey() {
+    private Key buildSigningKey() {
         // Ensure the secret is at least 256 bits (32 bytes) for HS256
         byte[] keyBytes = secret.getBytes();
         if (keyBytes.length < 32) {
@@ -107,4 +166,14 @@ public class JwtUtil {
         }
         return Keys.hmacShaKeyFor(keyBytes);
     }
+
+    private static final class VerifiedToken {
+        private final Claims claims;
+        private final long expiresAt;
+
+        private VerifiedToken(Claims claims, long expiresAt) {
+            this.claims = claims;
+            this.expiresAt = expiresAt;
+        }
+    }
 }
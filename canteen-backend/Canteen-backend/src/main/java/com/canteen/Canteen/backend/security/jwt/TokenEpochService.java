@@ -0,0 +1,30 @@
+package com.canteen.Canteen.backend.security.jwt;
+
+import com.canteen.Canteen.backend.repository.StaffRepository;
+import org.springframework.stereotype.Service;
+
+/**
+ * Per-user token epoch used to revoke JWTs. Every token carries the epoch
+ * that was current when it was issued; bumping staff.token_epoch invalidates
+ * all tokens issued before the bump, and deleting the user invalidates all of
+ * them. The epoch is stored with the user, so it survives restarts and every
+ * instance checks the same value. The lookup is served from the query and
+ * second-level caches, so the check normally does not reach the database;
+ * another instance sees a bump once its cached entries expire (10 minutes,
+ * see application.conf).
+ */
+@Service
+public class TokenEpochService {
+
+    private final StaffRepository staffRepository;
+
+    public TokenEpochService(StaffRepository staffRepository) {
+        this.staffRepository = staffRepository;
+    }
+
+    public boolean isCurrent(String username, long tokenEpoch) {
+        return staffRepository.findByUsername(username)
+                .map(staff -> tokenEpoch >= staff.getTokenEpoch())
+                .orElse(false);
+    }
+}
@@ -0,0 +1,71 @@
+package com.canteen.Canteen.backend.service;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Admission decisions for write traffic, made before a request reaches a
+ * controller: a per-user token bucket for order and feedback submission, and
+ * a global cap on concurrent writes so a burst cannot take every Tomcat
+ * thread and pooled connection.
+ */
+@Service
+public class AdmissionControlService {
+
+    private final TokenBucketRateLimiter userLimiter;
+    private final Semaphore writePermits;
+    private final int maxConcurrentWrites;
+
+    private final LongAdder rateLimitRejections = new LongAdder();
+    private final LongAdder bulkheadRejections = new LongAdder();
+
+    public AdmissionControlService(@Value("${app.admission.user-burst:5}") int userBurst,
+                                   @Value("${app.admission.user-refill-per-second:0.5}") double userRefillPerSecond,
+                                   @Value("${app.admission.stripes:64}") int stripes,
+                                   @Value("${app.admission.max-concurrent-writes:8}") int maxConcurrentWrites) {
+        this.userLimiter = new TokenBucketRateLimiter(userBurst, userRefillPerSecond, stripes);
+        this.writePermits = new Semaphore(maxConcurrentWrites);
+        this.maxConcurrentWrites = maxConcurrentWrites;
+    }
+
+    // Returns 0 if the user may submit now, otherwise the seconds to wait before retrying
+    public long checkUserRate(String username) {
+        long waitNanos = userLimiter.tryAcquire(username, System.nanoTime());
+        if (waitNanos == 0L) {
+            return 0L;
+        }
+        rateLimitRejections.increment();
+        return Math.max(1L, (waitNanos + 999_999_999L) / 1_000_000_000L);
+    }
+
+    // Never waits: a full bulkhead means the pools are already saturated
+    public boolean tryEnterWrite() {
+        if (writePermits.tryAcquire()) {
+            return true;
+        }
+        bulkheadRejections.increment();
+        return false;
+    }
+
+    public void exitWrite() {
+        writePermits.release();
+    }
+
+    public long getRateLimitRejections() { return rateLimitRejections.sum(); }
+    public long getBulkheadRejections() { return bulkheadRejections.sum(); }
+    public int getWritesInFlight() { return maxConcurrentWrites - writePermits.availablePermits(); }
+
+    public Map<String, Long> getStats() {
+        Map<String, Long> stats = new LinkedHashMap<>();
+        stats.put("rateLimitRejections", getRateLimitRejections());
+        stats.put("bulkheadRejections", getBulkheadRejections());
+        stats.put("writesInFlight", (long) getWritesInFlight());
+        stats.put("maxConcurrentWrites", (long) maxConcurrentWrites);
+        return stats;
+    }
+}
@@ -0,0 +1,150 @@
+package com.canteen.Canteen.backend.service;
+
+import com.canteen.Canteen.backend.dto.AuthAuditEventDTO;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+/**
+ * Recent login and token events in a fixed-size ring. Recording claims a
+ * sequence number and stores one small immutable event without taking a
+ * lock, so request threads never wait on the console or each other. A
+ * scheduled drainer writes new events to the log; when the ring wraps before
+ * the drainer catches up the oldest events are skipped and counted.
+ */
+@Slf4j
+@Service
+public class AuthAuditService {
+
+    public enum Type {
+        LOGIN_SUCCESS, LOGIN_FAILURE, LOGIN_REJECTED,
+        USER_LOADED, USER_NOT_FOUND, USER_INVALID,
+        TOKEN_REJECTED
+    }
+
+    private final int capacity;
+    private final int mask;
+    private final AtomicReferenceArray<Event> slots;
+    private final AtomicLong next = new AtomicLong();
+
+    // Drainer state, only touched by drain()
+    private long drained;
+    private long claimedAtLastDrain;
+    private long dropped;
+
+    public AuthAuditService(@Value("${app.auth.audit.capacity:4096}") int requestedCapacity) {
+        // Power of two so the slot is a mask of the sequence
+        this.capacity = Integer.highestOneBit(Math.max(2, requestedCapacity - 1)) << 1;
+        this.mask = capacity - 1;
+        this.slots = new AtomicReferenceArray<>(capacity);
+    }
+
+    public void record(Type type, String username, String detail) {
+        long sequence = next.getAndIncrement();
+        Event event = new Event(sequence, System.currentTimeMillis(), type, username, detail);
+        int slot = (int) (sequence & mask);
+        while (true) {
+            Event current = slots.get(slot);
+            // A writer that stalled for a whole lap must not overwrite the newer event
+            if (current != null && current.sequence > sequence) {
+                return;
+            }
+            if (slots.compareAndSet(slot, current, event)) {
+                return;
+            }
+        }
+    }
+
+    // Newest first; type and username are optional filters
+    public List<AuthAuditEventDTO> recent(int limit, Type type, String username) {
+        List<AuthAuditEventDTO> matches = new ArrayList<>(Math.min(limit, 128));
+        long newest = next.get() - 1;
+        long oldest = Math.max(0L, newest - mask);
+        for (long sequence = newest; sequence >= oldest && matches.size() < limit; sequence--) {
+            Event event = slots.get((int) (sequence & mask));
+            if (event == null || event.sequence != sequence) {
+                continue;
+            }
+            if ((type == null || event.type == type) && (username == null || username.equals(event.username))) {
+                matches.add(event.toDto());
+            }
+        }
+        return matches;
+    }
+
+    public long getRecordedCount() { return next.get(); }
+    public synchronized long getDroppedCount() { return dropped; }
+
+    @Scheduled(fixedDelayString = "${app.auth.audit.drain-interval-ms:1000}")
+    public synchronized void drain() {
+        long end = next.get();
+        long sequence = drained;
+        if (end - sequence > capacity) {
+            dropped += end - capacity - sequence;
+            log.warn("{} auth audit events were overwritten before they could be logged", end - capacity - sequence);
+            sequence = end - capacity;
+        }
+        for (; sequence < end; sequence++) {
+            Event event = slots.get((int) (sequence & mask));
+            if (event == null || event.sequence < sequence) {
+                // Claimed but not written yet; give the writer until the next run
+                if (sequence >= claimedAtLastDrain) {
+                    break;
+                }
+                continue;
+            }
+            if (event.sequence > sequence) {
+                dropped++;
+                continue;
+            }
+            write(event);
+        }
+        drained = sequence;
+        claimedAtLastDrain = end;
+    }
+
+    @PreDestroy
+    void flush() {
+        drain();
+    }
+
+    private static void write(Event event) {
+        switch (event.type) {
+            case LOGIN_SUCCESS, USER_LOADED ->
+                    log.info("auth {} user={} {}", event.type, event.username, event.detail != null ? event.detail : "");
+            default ->
+                    log.warn("auth {} user={} {}", event.type, event.username, event.detail != null ? event.detail : "");
+        }
+    }
+
+    private static final class Event {
+        private final long sequence;
+        private final long timestamp;
+        private final Type type;
+        private final String username;
+        private final String detail;
+
+        private Event(long sequence, long timestamp, Type type, String username, String detail) {
+            this.sequence = sequence;
+            this.timestamp = timestamp;
+            this.type = type;
+            this.username = username;
+            this.detail = detail;
+        }
+
+        private AuthAuditEventDTO toDto() {
+            LocalDateTime time = LocalDateTime.ofInstant(Instant.ofEpochMilli(timestamp), ZoneId.systemDefault());
+            return new AuthAuditEventDTO(sequence, time, type.name(), username, detail);
+        }
+    }
+}
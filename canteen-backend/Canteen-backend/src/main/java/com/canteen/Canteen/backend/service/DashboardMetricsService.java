@@ -0,0 +1,69 @@
+package com.canteen.Canteen.backend.service;
+
+import com.canteen.Canteen.backend.repository.OrderRepository;
+import com.canteen.Canteen.backend.repository.StaffRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.SmartInitializingSingleton;
+import org.springframework.stereotype.Service;
+
+import java.math.BigDecimal;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * Running totals for the admin dashboard. Seeded from the database once all
+ * beans exist, before the web server accepts requests, and then kept current
+ * as orders and staff change, so reading the stats never scans the orders
+ * table. No order can commit while the seed reads, so none is lost to it.
+ */
+@Slf4j
+@Service
+public class DashboardMetricsService implements SmartInitializingSingleton {
+
+    private final OrderRepository orderRepository;
+    private final StaffRepository staffRepository;
+
+    private final AtomicLong totalOrders = new AtomicLong();
+    private final AtomicReference<BigDecimal> totalRevenue = new AtomicReference<>(BigDecimal.ZERO);
+    private final AtomicLong totalUsers = new AtomicLong();
+
+    public DashboardMetricsService(OrderRepository orderRepository, StaffRepository staffRepository) {
+        this.orderRepository = orderRepository;
+        this.staffRepository = staffRepository;
+    }
+
+    // Staff that DataInitializer creates afterwards are counted as they are persisted
+    @Override
+    public void afterSingletonsInstantiated() {
+        totalOrders.set(orderRepository.count());
+        totalRevenue.set(orderRepository.sumTotalAmount());
+        totalUsers.set(staffRepository.count());
+        log.info("Dashboard metrics seeded: {} orders, {} revenue, {} users",
+                totalOrders.get(), totalRevenue.get(), totalUsers.get());
+    }
+
+    public long getTotalOrders() { return totalOrders.get(); }
+    public BigDecimal getTotalRevenue() { return totalRevenue.get(); }
+    public long getTotalUsers() { return totalUsers.get(); }
+
+    public void ordersCreated(long count, BigDecimal amount) {
+        TransactionHooks.afterCommit(() -> apply(count, amount));
+    }
+
+    public void ordersRemoved(long count, BigDecimal amount) {
+        TransactionHooks.afterCommit(() -> apply(-count, amount.negate()));
+    }
+
+    public void userCreated() {
+        TransactionHooks.afterCommit(totalUsers::incrementAndGet);
+    }
+
+    public void userRemoved() {
+        TransactionHooks.afterCommit(totalUsers::decrementAndGet);
+    }
+
+    private void apply(long count, BigDecimal amount) {
+        totalOrders.addAndGet(count);
+        totalRevenue.accumulateAndGet(amount, BigDecimal::add);
+    }
+}
@@ -0,0 +1,189 @@
+package com.canteen.Canteen.backend.service;
+
+import com.canteen.Canteen.backend.model.IdempotencyRecord;
+import com.canteen.Canteen.backend.model.Order;
+import com.canteen.Canteen.backend.repository.IdempotencyRecordRepository;
+import com.canteen.Canteen.backend.repository.OrderRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDateTime;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.function.Supplier;
+
+/**
+ * Runs order creation at most once per (user, Idempotency-Key). Results are
+ * kept in a bounded in-memory cache for a short time and in the
+ * idempotency_keys table for longer; the key row is inserted in the same
+ * transaction as the order, so a key never points at an order that was
+ * rolled back. A duplicate that arrives while the first request is still
+ * running waits for its result instead of inserting again.
+ */
+@Slf4j
+@Service
+public class IdempotencyService {
+
+    public static final int MAX_KEY_LENGTH = 100;
+
+    private final IdempotencyRecordRepository idempotencyRecordRepository;
+    private final OrderRepository orderRepository;
+    private final TransactionTemplate transactionTemplate;
+
+    private final int maxEntries;
+    private final long cacheTtlMs;
+    private final long recordTtlHours;
+    private final long waitMs;
+
+    private final Map<String, Entry> entries = new ConcurrentHashMap<>();
+
+    public IdempotencyService(IdempotencyRecordRepository idempotencyRecordRepository,
+                              OrderRepository orderRepository,
+                              TransactionTemplate transactionTemplate,
+                              @Value("${app.idempotency.cache-size:10000}") int maxEntries,
+                              @Value("${app.idempotency.cache-ttl-ms:600000}") long cacheTtlMs,
+                              @Value("${app.idempotency.record-ttl-hours:24}") long recordTtlHours,
+                              @Value("${app.idempotency.wait-ms:10000}") long waitMs) {
+        this.idempotencyRecordRepository = idempotencyRecordRepository;
+        this.orderRepository = orderRepository;
+        this.transactionTemplate = transactionTemplate;
+        this.maxEntries = maxEntries;
+        this.cacheTtlMs = cacheTtlMs;
+        this.recordTtlHours = recordTtlHours;
+        this.waitMs = waitMs;
+    }
+
+    public static final class Result {
+        private final Order order;
+        private final boolean replayed;
+
+        private Result(Order order, boolean replayed) {
+            this.order = order;
+            this.replayed = replayed;
+        }
+
+        public Order getOrder() { return order; }
+        // True when the order was created by an earlier request with the same key
+        public boolean isReplayed() { return replayed; }
+    }
+
+    /**
+     * Saves the order through {@code create} unless this user already used the
+     * key. Throws {@link TimeoutException} if an earlier request with the same
+     * key is still running after the configured wait.
+     */
+    public Result createOnce(String username, String key, Supplier<Order> create) throws TimeoutException {
+        String scopedKey = username + ":" + key;
+        while (true) {
+            long now = System.currentTimeMillis();
+            Entry mine = new Entry(now);
+            Entry existing = entries.putIfAbsent(scopedKey, mine);
+            if (existing != null && existing.isExpired(now, cacheTtlMs)) {
+                entries.remove(scopedKey, existing);
+                continue;
+            }
+            if (existing != null) {
+                Order order = await(existing);
+                if (order != null) {
+                    return new Result(order, true);
+                }
+                // The first attempt failed; try again, possibly as the new owner
+                continue;
+            }
+
+            if (entries.size() > maxEntries) {
+                evict(now);
+            }
+            try {
+                Result result = execute(scopedKey, create);
+                mine.result.complete(result.getOrder());
+                return result;
+            } catch (RuntimeException e) {
+                entries.remove(scopedKey, mine);
+                mine.result.complete(null);
+                throw e;
+            }
+        }
+    }
+
+    private Result execute(String scopedKey, Supplier<Order> create) {
+        Optional<Order> previous = findRecorded(scopedKey);
+        if (previous.isPresent()) {
+            return new Result(previous.get(), true);
+        }
+        try {
+            Order created = transactionTemplate.execute(status -> {
+                Order order = create.get();
+                idempotencyRecordRepository.saveAndFlush(
+                        new IdempotencyRecord(scopedKey, order.getId(), LocalDateTime.now()));
+                return order;
+            });
+            return new Result(created, false);
+        } catch (DataIntegrityViolationException e) {
+            // Another instance recorded the key first; its order won and ours was rolled back
+            return findRecorded(scopedKey).map(order -> new Result(order, true)).orElseThrow(() -> e);
+        }
+    }
+
+    // The key and its order are read in one transaction, so a concurrent delete cannot split them
+    private Optional<Order> findRecorded(String scopedKey) {
+        return transactionTemplate.execute(status -> idempotencyRecordRepository.findById(scopedKey)
+                .flatMap(record -> orderRepository.findWithItemsById(record.getOrderId())));
+    }
+
+    private Order await(Entry entry) throws TimeoutException {
+        try {
+            return entry.result.get(waitMs, TimeUnit.MILLISECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new TimeoutException("Interrupted while waiting for the original request");
+        } catch (ExecutionException e) {
+            return null;
+        }
+    }
+
+    private void evict(long now) {
+        entries.values().removeIf(entry -> entry.result.isDone() && entry.isExpired(now, cacheTtlMs));
+        // Still over the limit: drop an arbitrary tenth of the finished entries; the table still has them
+        int excess = entries.size() - (maxEntries - maxEntries / 10);
+        Iterator<Entry> iterator = entries.values().iterator();
+        while (excess > 0 && iterator.hasNext()) {
+            if (iterator.next().result.isDone()) {
+                iterator.remove();
+                excess--;
+            }
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${app.idempotency.cleanup-interval-ms:3600000}")
+    public void purgeExpiredRecords() {
+        int removed = idempotencyRecordRepository.deleteOlderThan(LocalDateTime.now().minusHours(recordTtlHours));
+        if (removed > 0) {
+            log.info("Removed {} expired idempotency keys", removed);
+        }
+    }
+
+    private static final class Entry {
+        private final long createdAt;
+        // Completes with the order, or with null if the attempt failed
+        private final CompletableFuture<Order> result = new CompletableFuture<>();
+
+        private Entry(long createdAt) {
+            this.createdAt = createdAt;
+        }
+
+        private boolean isExpired(long now, long ttlMs) {
+            return result.isDone() && now - createdAt > ttlMs;
+        }
+    }
+}
@@ -0,0 +1,281 @@
+package com.canteen.Canteen.backend.service;
+
+import com.canteen.Canteen.backend.dto.KitchenTicketDTO;
+import com.canteen.Canteen.backend.model.Order;
+import com.canteen.Canteen.backend.model.OrderItem;
+import com.canteen.Canteen.backend.repository.OrderRepository;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Service;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentSkipListSet;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * Active orders for the kitchen, held in memory oldest first. Tickets move
+ * Pending -> Processing -> Completed (or Cancelled) with a compare-and-set on
+ * the ticket status, so two cooks cannot both claim the same order. The status
+ * is written back to the database asynchronously; the board is rebuilt from
+ * the database on startup.
+ */
+@Slf4j
+@Service
+public class KitchenQueueService {
+
+    public static final String PENDING = "Pending";
+    public static final String PROCESSING = "Processing";
+    public static final String COMPLETED = "Completed";
+    public static final String CANCELLED = "Cancelled";
+
+    public enum TransitionResult { MOVED, NOT_FOUND, CONFLICT, NOT_ALLOWED }
+
+    private static final Comparator<Ticket> BY_ORDER_DATE =
+            Comparator.comparing((Ticket ticket) -> ticket.orderDate).thenComparingLong(ticket -> ticket.orderId);
+
+    private final OrderRepository orderRepository;
+    private final OrderEventService orderEventService;
+    private final ObjectMapper objectMapper;
+
+    private final Map<Long, Ticket> tickets = new ConcurrentHashMap<>();
+    private final Set<Ticket> queue = new ConcurrentSkipListSet<>(BY_ORDER_DATE);
+
+    // Bumped on every change; the serialized board is reused while it matches
+    private final AtomicLong version = new AtomicLong();
+    private volatile Board board;
+
+    // One writer keeps status writes for the same order in the order they were made
+    private final ExecutorService writer = Executors.newSingleThreadExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "kitchen-writer");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    public KitchenQueueService(OrderRepository orderRepository, OrderEventService orderEventService,
+                               ObjectMapper objectMapper) {
+        this.orderRepository = orderRepository;
+        this.orderEventService = orderEventService;
+        this.objectMapper = objectMapper;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void rebuild() {
+        List<Order> active = orderRepository.findAllWithItemsByStatusIn(List.of(PENDING, PROCESSING));
+        for (Order order : active) {
+            add(order);
+        }
+        log.info("Kitchen queue rebuilt with {} active orders", tickets.size());
+    }
+
+    // Current board as JSON, oldest ticket first
+    public byte[] boardJson() {
+        long current = version.get();
+        Board cached = board;
+        if (cached != null && cached.version == current) {
+            return cached.json;
+        }
+        byte[] json;
+        try {
+            json = objectMapper.writeValueAsBytes(snapshot());
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Could not serialize kitchen board", e);
+        }
+        // A change during serialization leaves a stale version tag, so the next call rebuilds
+        board = new Board(current, json);
+        return json;
+    }
+
+    public List<KitchenTicketDTO> snapshot() {
+        List<KitchenTicketDTO> view = new ArrayList<>(tickets.size());
+        for (Ticket ticket : queue) {
+            view.add(ticket.toDto());
+        }
+        return view;
+    }
+
+    public int getActiveTicketCount() {
+        return tickets.size();
+    }
+
+    public String currentStatus(long orderId) {
+        Ticket ticket = tickets.get(orderId);
+        return ticket != null ? ticket.status.get() : null;
+    }
+
+    public TransitionResult transition(long orderId, String requestedFrom, String requestedTo) {
+        String from = canonical(requestedFrom);
+        String to = canonical(requestedTo);
+        if (!allowed(from, to)) {
+            return TransitionResult.NOT_ALLOWED;
+        }
+        Ticket ticket = tickets.get(orderId);
+        if (ticket == null) {
+            return TransitionResult.NOT_FOUND;
+        }
+        if (!ticket.status.compareAndSet(from, to)) {
+            return TransitionResult.CONFLICT;
+        }
+        if (!isActive(to)) {
+            remove(ticket);
+        }
+        version.incrementAndGet();
+        writer.execute(() -> write(ticket, from, to));
+        return TransitionResult.MOVED;
+    }
+
+    // --- Changes made outside the kitchen (checkout, admin status edits, deletes) ---
+
+    public void orderCreated(Order order) {
+        TransactionHooks.afterCommit(() -> add(order));
+    }
+
+    public void orderStatusChanged(Order order) {
+        TransactionHooks.afterCommit(() -> {
+            Ticket ticket = tickets.get(order.getId());
+            if (ticket == null) {
+                // e.g. a completed order put back to Pending
+                add(order);
+            } else if (isActive(order.getStatus())) {
+                ticket.status.set(canonical(order.getStatus()));
+                version.incrementAndGet();
+            } else {
+                remove(ticket);
+                version.incrementAndGet();
+            }
+        });
+    }
+
+    public void orderRemoved(long orderId) {
+        TransactionHooks.afterCommit(() -> {
+            Ticket ticket = tickets.get(orderId);
+            if (ticket != null) {
+                remove(ticket);
+                version.incrementAndGet();
+            }
+        });
+    }
+
+    private void write(Ticket ticket, String from, String to) {
+        try {
+            if (orderRepository.updateStatus(ticket.orderId, to) > 0) {
+                orderEventService.orderStatusChanged(ticket.orderId, ticket.username, to, ticket.totalAmount);
+                return;
+            }
+            log.warn("Order {} no longer exists; dropping kitchen ticket", ticket.orderId);
+            remove(ticket);
+        } catch (RuntimeException e) {
+            // Put the ticket back so the board keeps matching the database
+            log.error("Could not save status {} for order {}", to, ticket.orderId, e);
+            if (ticket.status.compareAndSet(to, from) && !isActive(to)) {
+                tickets.putIfAbsent(ticket.orderId, ticket);
+                queue.add(ticket);
+            }
+        }
+        version.incrementAndGet();
+    }
+
+    private void add(Order order) {
+        if (order.getId() == null || order.getOrderDate() == null || !isActive(order.getStatus())) {
+            return;
+        }
+        Ticket ticket = new Ticket(order);
+        if (tickets.putIfAbsent(ticket.orderId, ticket) == null) {
+            queue.add(ticket);
+            version.incrementAndGet();
+        }
+    }
+
+    private void remove(Ticket ticket) {
+        if (tickets.remove(ticket.orderId, ticket)) {
+            queue.remove(ticket);
+        }
+    }
+
+    // Statuses are compared by reference in the ticket's compare-and-set, so every value stored is one of the constants
+    private static String canonical(String status) {
+        if (status == null) {
+            return null;
+        }
+        for (String known : new String[] {PENDING, PROCESSING, COMPLETED, CANCELLED}) {
+            if (known.equalsIgnoreCase(status.trim())) {
+                return known;
+            }
+        }
+        return status;
+    }
+
+    private static boolean isActive(String status) {
+        String known = canonical(status);
+        return PENDING.equals(known) || PROCESSING.equals(known);
+    }
+
+    private static boolean allowed(String from, String to) {
+        if (PENDING.equals(from)) {
+            return PROCESSING.equals(to) || CANCELLED.equals(to);
+        }
+        if (PROCESSING.equals(from)) {
+            return COMPLETED.equals(to) || CANCELLED.equals(to);
+        }
+        return false;
+    }
+
+    @PreDestroy
+    void shutdown() throws InterruptedException {
+        // Let queued status writes reach the database before the pool closes
+        writer.shutdown();
+        if (!writer.awaitTermination(10, TimeUnit.SECONDS)) {
+            log.warn("Kitchen status writes still pending at shutdown");
+        }
+    }
+
+    private static final class Ticket {
+        private final long orderId;
+        private final String username;
+        private final LocalDateTime orderDate;
+        private final List<String> items;
+        private final BigDecimal totalAmount;
+        private final AtomicReference<String> status;
+
+        private Ticket(Order order) {
+            this.orderId = order.getId();
+            this.username = order.getUsername();
+            this.orderDate = order.getOrderDate();
+            this.totalAmount = order.getTotalAmount();
+            this.status = new AtomicReference<>(canonical(order.getStatus()));
+            List<String> lines = new ArrayList<>(order.getItems().size());
+            for (OrderItem item : order.getItems()) {
+                lines.add(item.getQuantity() + " x " + item.getMealName());
+            }
+            this.items = List.copyOf(lines);
+        }
+
+        private KitchenTicketDTO toDto() {
+            return new KitchenTicketDTO(orderId, username, orderDate, status.get(), items, totalAmount);
+        }
+    }
+
+    private static final class Board {
+        private final long version;
+        private final byte[] json;
+
+        private Board(long version, byte[] json) {
+            this.version = version;
+            this.json = json;
+        }
+    }
+}
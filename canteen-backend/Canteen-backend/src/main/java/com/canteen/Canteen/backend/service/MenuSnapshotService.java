@@ -0,0 +1,180 @@
+package com.canteen.Canteen.backend.service;
+
+import com.canteen.Canteen.backend.model.Meal;
+import com.canteen.Canteen.backend.repository.MealRepository;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.math.BigDecimal;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Keeps an immutable, pre-serialized copy of the menu so GET /api/menu never
+ * hits the database or Jackson. The snapshot is rebuilt only when a meal is
+ * added, updated or deleted, and also carries the id index checkout uses to
+ * price orders without querying meals.
+ */
+@Service
+public class MenuSnapshotService {
+
+    private final MealRepository mealRepository;
+    private final ObjectMapper objectMapper;
+    // A fresh read-write transaction reads the menu from the primary, even from an afterCommit hook
+    private final TransactionTemplate primaryRead;
+
+    // Boot time keeps ETags from an earlier process from matching after a restart
+    private final long epoch = System.currentTimeMillis();
+    private final AtomicLong version = new AtomicLong();
+    private volatile MenuSnapshot snapshot;
+    // A lock rather than synchronized: the query inside would pin a virtual thread's carrier
+    private final ReentrantLock refreshLock = new ReentrantLock();
+
+    public MenuSnapshotService(MealRepository mealRepository, ObjectMapper objectMapper,
+                               PlatformTransactionManager transactionManager) {
+        this.mealRepository = mealRepository;
+        this.objectMapper = objectMapper;
+        this.primaryRead = new TransactionTemplate(transactionManager);
+        this.primaryRead.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+    }
+
+    public MenuSnapshot current() {
+        MenuSnapshot current = snapshot;
+        if (current == null) {
+            current = refresh();
+        }
+        return current;
+    }
+
+    // Rebuilds once the caller's meal change commits, so the snapshot never shows a write that rolled back
+    public void refreshAfterCommit() {
+        TransactionHooks.afterCommit(this::refresh);
+    }
+
+    // Serialized so the last writer always publishes the latest committed menu
+    public MenuSnapshot refresh() {
+        refreshLock.lock();
+        try {
+            List<Meal> meals = primaryRead.execute(status -> List.copyOf(mealRepository.findAll()));
+            byte[] json;
+            try {
+                json = objectMapper.writeValueAsBytes(meals);
+            } catch (JsonProcessingException e) {
+                throw new IllegalStateException("Could not serialize menu", e);
+            }
+            long next = version.incrementAndGet();
+            MenuSnapshot rebuilt = new MenuSnapshot(next, "\"" + epoch + "-" + next + "\"", meals, json, MenuIndex.of(meals));
+            snapshot = rebuilt;
+            return rebuilt;
+        } finally {
+            refreshLock.unlock();
+        }
+    }
+
+    public static final class MenuSnapshot {
+        private final long version;
+        private final String etag;
+        private final List<Meal> meals;
+        private final byte[] json;
+        private final MenuIndex index;
+
+        private MenuSnapshot(long version, String etag, List<Meal> meals, byte[] json, MenuIndex index) {
+            this.version = version;
+            this.etag = etag;
+            this.meals = meals;
+            this.json = json;
+            this.index = index;
+        }
+
+        public long getVersion() { return version; }
+        public String getEtag() { return etag; }
+        public List<Meal> getMeals() { return meals; }
+        public MenuIndex getIndex() { return index; }
+
+        // Callers must not modify the returned array
+        public byte[] getJson() { return json; }
+
+        public boolean matches(String ifNoneMatch) {
+            if (ifNoneMatch == null) {
+                return false;
+            }
+            for (String candidate : ifNoneMatch.split(",")) {
+                String tag = candidate.trim();
+                if (tag.startsWith("W/")) {
+                    tag = tag.substring(2);
+                }
+                if (tag.equals("*") || tag.equals(etag)) {
+                    return true;
+                }
+            }
+            return false;
+        }
+    }
+
+    /**
+     * Meals keyed by primitive id: a sorted long[] searched with binary search
+     * and a parallel array of immutable entries, so lookups neither box ids
+     * nor touch the entities.
+     */
+    public static final class MenuIndex {
+        private final long[] ids;
+        private final MenuEntry[] entries;
+
+        private MenuIndex(long[] ids, MenuEntry[] entries) {
+            this.ids = ids;
+            this.entries = entries;
+        }
+
+        static MenuIndex of(List<Meal> meals) {
+            Meal[] sorted = meals.stream()
+                    .filter(meal -> meal.getId() != null)
+                    .sorted(Comparator.comparing(Meal::getId))
+                    .toArray(Meal[]::new);
+            long[] ids = new long[sorted.length];
+            MenuEntry[] entries = new MenuEntry[sorted.length];
+            for (int i = 0; i < sorted.length; i++) {
+                Meal meal = sorted[i];
+                ids[i] = meal.getId();
+                entries[i] = new MenuEntry(meal.getId(), meal.getName(), meal.getPrice(), meal.getCategory(), meal.isAvailable());
+            }
+            return new MenuIndex(ids, entries);
+        }
+
+        // Returns null for unknown meals
+        public MenuEntry get(long mealId) {
+            int position = Arrays.binarySearch(ids, mealId);
+            return position >= 0 ? entries[position] : null;
+        }
+
+        public int size() { return ids.length; }
+    }
+
+    public static final class MenuEntry {
+        private final long id;
+        private final String name;
+        private final BigDecimal price;
+        private final String category;
+        private final boolean available;
+
+        private MenuEntry(long id, String name, BigDecimal price, String category, boolean available) {
+            this.id = id;
+            this.name = name;
+            this.price = price;
+            this.category = category;
+            this.available = available;
+        }
+
+        public long getId() { return id; }
+        public String getName() { return name; }
+        public BigDecimal getPrice() { return price; }
+        public String getCategory() { return category; }
+        public boolean isAvailable() { return available; }
+    }
+}
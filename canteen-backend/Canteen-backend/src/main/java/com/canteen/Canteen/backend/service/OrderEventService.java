@@ -0,0 +1,231 @@
+package com.canteen.Canteen.backend.service;
+
+import com.canteen.Canteen.backend.dto.OrderEventDTO;
+import com.canteen.Canteen.backend.model.Order;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.MediaType;
+import org.springframework.stereotype.Service;
+import org.springframework.web.servlet.mvc.method.annotation.ResponseBodyEmitter.DataWithMediaType;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.util.ArrayDeque;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Pushes order changes to clients over Server-Sent Events. Customers only
+ * receive their own orders, admins receive everything. An idle subscriber is
+ * just a parked async request plus an empty queue: events are serialized once,
+ * buffered per subscriber up to a fixed size, and written by a small shared
+ * pool, so a slow client never blocks checkout or other subscribers.
+ */
+@Slf4j
+@Service
+public class OrderEventService {
+
+    private static final Set<DataWithMediaType> HEARTBEAT = SseEmitter.event().comment("keep-alive").build();
+
+    private final ObjectMapper objectMapper;
+    private final long timeoutMs;
+    private final int bufferSize;
+
+    // Customers indexed by username so a publish only touches the owner's connections
+    private final Map<String, Set<Subscriber>> customers = new ConcurrentHashMap<>();
+    private final Set<Subscriber> admins = ConcurrentHashMap.newKeySet();
+    private final AtomicInteger subscriberCount = new AtomicInteger();
+
+    private final ExecutorService senders;
+    private final ScheduledExecutorService heartbeats;
+
+    public OrderEventService(ObjectMapper objectMapper,
+                             @Value("${app.orders.stream.timeout-ms:1800000}") long timeoutMs,
+                             @Value("${app.orders.stream.buffer-size:32}") int bufferSize,
+                             @Value("${app.orders.stream.heartbeat-ms:20000}") long heartbeatMs,
+                             @Value("${app.orders.stream.sender-threads:2}") int senderThreads) {
+        this.objectMapper = objectMapper;
+        this.timeoutMs = timeoutMs;
+        this.bufferSize = bufferSize;
+        this.senders = Executors.newFixedThreadPool(senderThreads, daemonThreads("order-events-"));
+        this.heartbeats = Executors.newSingleThreadScheduledExecutor(daemonThreads("order-events-heartbeat-"));
+        heartbeats.scheduleWithFixedDelay(this::heartbeat, heartbeatMs, heartbeatMs, TimeUnit.MILLISECONDS);
+    }
+
+    public SseEmitter subscribe(String username, boolean admin) {
+        SseEmitter emitter = new SseEmitter(timeoutMs);
+        Subscriber subscriber = new Subscriber(emitter, username, admin);
+        if (admin) {
+            admins.add(subscriber);
+        } else {
+            customers.computeIfAbsent(username, key -> ConcurrentHashMap.newKeySet()).add(subscriber);
+        }
+        subscriberCount.incrementAndGet();
+        emitter.onCompletion(() -> unsubscribe(subscriber));
+        emitter.onTimeout(() -> unsubscribe(subscriber));
+        emitter.onError(error -> unsubscribe(subscriber));
+        // Flushes the response headers right away so the client knows it is connected
+        subscriber.enqueue(SseEmitter.event().comment("connected").build());
+        return emitter;
+    }
+
+    public int getSubscriberCount() {
+        return subscriberCount.get();
+    }
+
+    public void orderCreated(Order order) {
+        TransactionHooks.afterCommit(() -> publish(new OrderEventDTO("created", order)));
+    }
+
+    public void orderStatusChanged(Order order) {
+        TransactionHooks.afterCommit(() -> publish(new OrderEventDTO("status", order)));
+    }
+
+    // For status writes that do not go through an Order entity
+    public void orderStatusChanged(long orderId, String username, String status, BigDecimal totalAmount) {
+        TransactionHooks.afterCommit(() -> publish(new OrderEventDTO("status", orderId, username, status, totalAmount)));
+    }
+
+    private void publish(OrderEventDTO event) {
+        Set<Subscriber> owners = customers.get(event.getUsername());
+        if ((owners == null || owners.isEmpty()) && admins.isEmpty()) {
+            return;
+        }
+        String json;
+        try {
+            json = objectMapper.writeValueAsString(event);
+        } catch (JsonProcessingException e) {
+            log.warn("Could not serialize order event for order {}", event.getOrderId(), e);
+            return;
+        }
+        // Built once and shared read-only by every recipient
+        Set<DataWithMediaType> message = SseEmitter.event()
+                .name(event.getType())
+                .data(json, MediaType.APPLICATION_JSON)
+                .build();
+        if (owners != null) {
+            owners.forEach(subscriber -> subscriber.enqueue(message));
+        }
+        admins.forEach(subscriber -> subscriber.enqueue(message));
+    }
+
+    private void heartbeat() {
+        customers.values().forEach(group -> group.forEach(Subscriber::heartbeat));
+        admins.forEach(Subscriber::heartbeat);
+    }
+
+    private void unsubscribe(Subscriber subscriber) {
+        boolean removed;
+        if (subscriber.admin) {
+            removed = admins.remove(subscriber);
+        } else {
+            Set<Subscriber> group = customers.get(subscriber.username);
+            removed = group != null && group.remove(subscriber);
+            if (group != null && group.isEmpty()) {
+                customers.remove(subscriber.username, group);
+            }
+        }
+        if (removed) {
+            subscriberCount.decrementAndGet();
+        }
+    }
+
+    @PreDestroy
+    void shutdown() {
+        heartbeats.shutdownNow();
+        senders.shutdownNow();
+        customers.values().forEach(group -> group.forEach(subscriber -> subscriber.emitter.complete()));
+        admins.forEach(subscriber -> subscriber.emitter.complete());
+    }
+
+    private static ThreadFactory daemonThreads(String prefix) {
+        AtomicInteger counter = new AtomicInteger();
+        return runnable -> {
+            Thread thread = new Thread(runnable, prefix + counter.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        };
+    }
+
+    private final class Subscriber {
+        private final SseEmitter emitter;
+        private final String username;
+        private final boolean admin;
+
+        // Guarded by this; draining is true while a sender task owns the queue
+        private final ArrayDeque<Set<DataWithMediaType>> queue = new ArrayDeque<>();
+        private boolean draining;
+        private boolean closed;
+
+        private Subscriber(SseEmitter emitter, String username, boolean admin) {
+            this.emitter = emitter;
+            this.username = username;
+            this.admin = admin;
+        }
+
+        void enqueue(Set<DataWithMediaType> event) {
+            synchronized (this) {
+                if (closed) {
+                    return;
+                }
+                if (queue.size() >= bufferSize) {
+                    // Slow reader: drop the oldest event rather than grow without bound
+                    queue.pollFirst();
+                }
+                queue.addLast(event);
+                if (draining) {
+                    return;
+                }
+                draining = true;
+            }
+            senders.execute(this::drain);
+        }
+
+        // Only sent when nothing else is pending; any real event keeps the connection alive too
+        void heartbeat() {
+            synchronized (this) {
+                if (!queue.isEmpty() || draining) {
+                    return;
+                }
+            }
+            enqueue(HEARTBEAT);
+        }
+
+        private void drain() {
+            while (true) {
+                Set<DataWithMediaType> next;
+                synchronized (this) {
+                    next = queue.pollFirst();
+                    if (next == null) {
+                        draining = false;
+                        return;
+                    }
+                }
+                try {
+                    emitter.send(next);
+                } catch (IOException | IllegalStateException e) {
+                    // Client went away; the emitter callbacks finish the cleanup
+                    synchronized (this) {
+                        closed = true;
+                        queue.clear();
+                        draining = false;
+                    }
+                    unsubscribe(this);
+                    emitter.completeWithError(e);
+                    return;
+                }
+            }
+        }
+    }
+}
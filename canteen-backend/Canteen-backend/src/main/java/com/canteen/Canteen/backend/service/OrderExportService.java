@@ -0,0 +1,164 @@
+package com.canteen.Canteen.backend.service;
+
+import com.canteen.Canteen.backend.config.ReadRoutingDataSource;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.springframework.dao.DataAccessException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionException;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.sql.Timestamp;
+
+/**
+ * Streams the full order ledger from a forward-only JDBC cursor straight to an
+ * output stream. Rows are written as they are read, so memory use does not
+ * depend on how many orders exist.
+ */
+@Service
+public class OrderExportService {
+
+    private static final String LEDGER_SQL =
+            "SELECT o.id, o.username, o.order_date, o.status, o.total_amount, " +
+            "oi.meal_id, oi.meal_name, oi.quantity, oi.price " +
+            "FROM orders o LEFT JOIN order_items oi ON oi.order_id = o.id " +
+            "ORDER BY o.id, oi.id";
+
+    private static final String CSV_HEADER =
+            "order_id,username,order_date,status,total_amount,meal_id,meal_name,quantity,price\n";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final ObjectMapper objectMapper;
+    private final TransactionTemplate readOnlyTransaction;
+
+    public OrderExportService(JdbcTemplate jdbcTemplate, ObjectMapper objectMapper,
+                              PlatformTransactionManager transactionManager) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.objectMapper = objectMapper;
+        // Read-only and named for the replica, so the export runs there when one is configured
+        this.readOnlyTransaction = new TransactionTemplate(transactionManager);
+        this.readOnlyTransaction.setReadOnly(true);
+        this.readOnlyTransaction.setName(ReadRoutingDataSource.REPLICA);
+    }
+
+    // One line per order item; orders without items get a single line with empty item columns
+    public void writeCsv(OutputStream out) throws IOException {
+        Writer writer = new BufferedWriter(new OutputStreamWriter(out, StandardCharsets.UTF_8), 1 << 16);
+        writer.write(CSV_HEADER);
+        streamLedger(rs -> {
+            StringBuilder line = new StringBuilder(128);
+            line.append(rs.getLong(1)).append(',');
+            appendCsv(line, rs.getString(2)).append(',');
+            line.append(format(rs.getTimestamp(3))).append(',');
+            appendCsv(line, rs.getString(4)).append(',');
+            line.append(format(rs.getBigDecimal(5))).append(',');
+            String mealName = rs.getString(7);
+            if (mealName != null) {
+                line.append(rs.getInt(6)).append(',');
+                appendCsv(line, mealName).append(',');
+                line.append(rs.getInt(8)).append(',');
+                line.append(format(rs.getBigDecimal(9)));
+            } else {
+                line.append(",,,");
+            }
+            line.append('\n');
+            write(writer, line);
+        });
+        writer.flush();
+    }
+
+    // One JSON object per order with its items nested; rows arrive grouped by order id
+    public void writeNdjson(OutputStream out) throws IOException {
+        JsonGenerator json = objectMapper.getFactory().createGenerator(out);
+        json.disable(JsonGenerator.Feature.AUTO_CLOSE_TARGET);
+        json.setRootValueSeparator(null);
+        long[] currentOrder = {-1L};
+        streamLedger(rs -> {
+            try {
+                long orderId = rs.getLong(1);
+                if (orderId != currentOrder[0]) {
+                    if (currentOrder[0] != -1L) {
+                        endOrder(json);
+                    }
+                    currentOrder[0] = orderId;
+                    json.writeStartObject();
+                    json.writeNumberField("id", orderId);
+                    json.writeStringField("username", rs.getString(2));
+                    json.writeStringField("orderDate", format(rs.getTimestamp(3)));
+                    json.writeStringField("status", rs.getString(4));
+                    json.writeNumberField("totalAmount", rs.getBigDecimal(5));
+                    json.writeArrayFieldStart("items");
+                }
+                String mealName = rs.getString(7);
+                if (mealName != null) {
+                    json.writeStartObject();
+                    json.writeNumberField("mealId", rs.getInt(6));
+                    json.writeStringField("mealName", mealName);
+                    json.writeNumberField("quantity", rs.getInt(8));
+                    json.writeNumberField("price", rs.getBigDecimal(9));
+                    json.writeEndObject();
+                }
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        });
+        if (currentOrder[0] != -1L) {
+            endOrder(json);
+        }
+        json.flush();
+    }
+
+    private void endOrder(JsonGenerator json) throws IOException {
+        json.writeEndArray();
+        json.writeEndObject();
+        json.writeRaw('\n');
+    }
+
+    private void streamLedger(RowCallbackHandler rowHandler) throws IOException {
+        try {
+            readOnlyTransaction.executeWithoutResult(status -> jdbcTemplate.query(StreamingQueries.forwardOnly(LEDGER_SQL), rowHandler));
+        } catch (UncheckedIOException e) {
+            // Usually the client disconnected mid-download
+            throw e.getCause();
+        } catch (DataAccessException | TransactionException e) {
+            throw new IOException("Order export failed", e);
+        }
+    }
+
+    private static void write(Writer writer, CharSequence line) {
+        try {
+            writer.append(line);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private static StringBuilder appendCsv(StringBuilder line, String value) {
+        if (value == null) {
+            return line;
+        }
+        if (value.indexOf(',') < 0 && value.indexOf('"') < 0 && value.indexOf('\n') < 0 && value.indexOf('\r') < 0) {
+            return line.append(value);
+        }
+        return line.append('"').append(value.replace("\"", "\"\"")).append('"');
+    }
+
+    private static String format(Timestamp timestamp) {
+        return timestamp == null ? "" : timestamp.toLocalDateTime().toString();
+    }
+
+    private static String format(BigDecimal amount) {
+        return amount == null ? "" : amount.toPlainString();
+    }
+}
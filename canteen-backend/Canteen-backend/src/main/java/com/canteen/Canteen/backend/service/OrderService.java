@@ -0,0 +1,83 @@
+package com.canteen.Canteen.backend.service;
+
+import com.canteen.Canteen.backend.model.Order;
+import com.canteen.Canteen.backend.repository.OrderRepository;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.math.BigDecimal;
+import java.util.Collection;
+import java.util.List;
+
+/**
+ * Order inserts and deletes together with the state derived from them. The
+ * rollup tables (hourly and category sales, per-user stats) are adjusted in
+ * the same transaction as the order, so a failed rollup write rolls the order
+ * back with it; the in-memory views register their updates to run once that
+ * transaction commits.
+ */
+@Service
+public class OrderService {
+
+    private final OrderRepository orderRepository;
+    private final DashboardMetricsService dashboardMetricsService;
+    private final OrderEventService orderEventService;
+    private final KitchenQueueService kitchenQueueService;
+    private final SalesRollupService salesRollupService;
+    private final TopSellersService topSellersService;
+    private final UserActivityService userActivityService;
+
+    public OrderService(OrderRepository orderRepository,
+                        DashboardMetricsService dashboardMetricsService,
+                        OrderEventService orderEventService,
+                        KitchenQueueService kitchenQueueService,
+                        SalesRollupService salesRollupService,
+                        TopSellersService topSellersService,
+                        UserActivityService userActivityService) {
+        this.orderRepository = orderRepository;
+        this.dashboardMetricsService = dashboardMetricsService;
+        this.orderEventService = orderEventService;
+        this.kitchenQueueService = kitchenQueueService;
+        this.salesRollupService = salesRollupService;
+        this.topSellersService = topSellersService;
+        this.userActivityService = userActivityService;
+    }
+
+    // Joins the caller's transaction when there is one (the idempotency key insert)
+    @Transactional
+    public Order create(Order order) {
+        Order saved = orderRepository.save(order);
+        dashboardMetricsService.ordersCreated(1, saved.getTotalAmount());
+        orderEventService.orderCreated(saved);
+        kitchenQueueService.orderCreated(saved);
+        salesRollupService.ordersCreated(saved);
+        topSellersService.orderCreated(saved);
+        userActivityService.orderCreated(saved);
+        return saved;
+    }
+
+    // The order must have its items loaded, for the category rollup
+    @Transactional
+    public void delete(Order order) {
+        orderRepository.delete(order);
+        removed(List.of(order));
+    }
+
+    @Transactional
+    public int deleteByUsername(String username) {
+        List<Order> removed = orderRepository.deleteByUsername(username);
+        removed(removed);
+        return removed.size();
+    }
+
+    private void removed(Collection<Order> orders) {
+        BigDecimal amount = orders.stream()
+                .map(Order::getTotalAmount)
+                .reduce(BigDecimal.ZERO, BigDecimal::add);
+        dashboardMetricsService.ordersRemoved(orders.size(), amount);
+        orders.forEach(order -> kitchenQueueService.orderRemoved(order.getId()));
+        salesRollupService.ordersRemoved(orders);
+        topSellersService.ordersRemoved(orders);
+        userActivityService.ordersRemoved(orders);
+    }
+}
@@ -0,0 +1,107 @@
+package com.canteen.Canteen.backend.service;
+
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.stereotype.Service;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAccumulator;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Runs BCrypt password checks on a small dedicated pool instead of the
+ * request thread. The pool and its queue are both bounded; once the queue is
+ * full further checks are rejected at once, so a login burst costs at most
+ * a few cores and never holds up menu and order requests.
+ */
+@Slf4j
+@Service
+public class PasswordHashingService {
+
+    private final PasswordEncoder passwordEncoder;
+    private final ThreadPoolExecutor executor;
+    private final int queueCapacity;
+
+    private final LongAdder hashes = new LongAdder();
+    private final LongAdder hashNanos = new LongAdder();
+    private final LongAccumulator maxHashNanos = new LongAccumulator(Math::max, 0L);
+    private final LongAdder rejections = new LongAdder();
+
+    public PasswordHashingService(PasswordEncoder passwordEncoder,
+                                  @Value("${app.auth.hash-threads:0}") int threads,
+                                  @Value("${app.auth.hash-queue:64}") int queueCapacity) {
+        this.passwordEncoder = passwordEncoder;
+        this.queueCapacity = queueCapacity;
+        // 0 means half the cores, leaving the rest for everything else
+        int size = threads > 0 ? threads : Math.max(1, Runtime.getRuntime().availableProcessors() / 2);
+        AtomicInteger counter = new AtomicInteger();
+        this.executor = new ThreadPoolExecutor(size, size, 0L, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(queueCapacity),
+                runnable -> {
+                    Thread thread = new Thread(runnable, "password-hash-" + counter.incrementAndGet());
+                    thread.setDaemon(true);
+                    return thread;
+                },
+                new ThreadPoolExecutor.AbortPolicy());
+    }
+
+    /**
+     * Checks the password on the hashing pool. The future fails with
+     * {@link RejectedExecutionException} right away if the queue is full.
+     */
+    public CompletableFuture<Boolean> matches(String rawPassword, String encodedPassword) {
+        try {
+            return CompletableFuture.supplyAsync(() -> {
+                long start = System.nanoTime();
+                try {
+                    return passwordEncoder.matches(rawPassword, encodedPassword);
+                } finally {
+                    long elapsed = System.nanoTime() - start;
+                    hashes.increment();
+                    hashNanos.add(elapsed);
+                    maxHashNanos.accumulate(elapsed);
+                }
+            }, executor);
+        } catch (RejectedExecutionException e) {
+            rejections.increment();
+            return CompletableFuture.failedFuture(e);
+        }
+    }
+
+    public int getQueueDepth() { return executor.getQueue().size(); }
+    public int getActiveHashes() { return executor.getActiveCount(); }
+    public long getHashCount() { return hashes.sum(); }
+    public long getHashNanos() { return hashNanos.sum(); }
+    public long getRejections() { return rejections.sum(); }
+
+    public Map<String, Long> getStats() {
+        long count = hashes.sum();
+        Map<String, Long> stats = new LinkedHashMap<>();
+        stats.put("queueDepth", (long) executor.getQueue().size());
+        stats.put("queueCapacity", (long) queueCapacity);
+        stats.put("activeHashes", (long) executor.getActiveCount());
+        stats.put("poolSize", (long) executor.getMaximumPoolSize());
+        stats.put("hashes", count);
+        stats.put("rejections", rejections.sum());
+        stats.put("avgHashMicros", count > 0 ? hashNanos.sum() / count / 1_000L : 0L);
+        stats.put("maxHashMicros", maxHashNanos.get() / 1_000L);
+        return stats;
+    }
+
+    @PreDestroy
+    void shutdown() throws InterruptedException {
+        executor.shutdown();
+        if (!executor.awaitTermination(5, TimeUnit.SECONDS)) {
+            log.warn("Password checks still running at shutdown");
+        }
+    }
+}
@@ -0,0 +1,249 @@
+package com.canteen.Canteen.backend.service;
+
+import com.canteen.Canteen.backend.model.Order;
+import com.canteen.Canteen.backend.model.OrderItem;
+import com.canteen.Canteen.backend.repository.CategorySalesRepository;
+import com.canteen.Canteen.backend.repository.SalesRollupRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.math.BigDecimal;
+import java.sql.Date;
+import java.sql.Timestamp;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Keeps the sales rollups in step with the orders table: sales_rollup_hourly
+ * holds the number of orders and their revenue per (day, hour), and
+ * sales_rollup_category the quantity and revenue per meal category. Rows are
+ * adjusted in place as orders are created and deleted, so reports read a
+ * handful of rollup rows instead of grouping orders and items.
+ * <p>
+ * Every bucket is spread over {@code app.rollup.slots} rows. Each order
+ * picks one slot at random, so orders in the same hour or category mostly
+ * update different rows and do not wait on each other's row lock until
+ * commit. Reads sum the slots; a single slot may go negative after deletes.
+ */
+@Slf4j
+@Service
+public class SalesRollupService {
+
+    private static final String INCREMENT_SQL =
+            "UPDATE sales_rollup_hourly SET order_count = order_count + ?, revenue = revenue + ? " +
+            "WHERE bucket_day = ? AND bucket_hour = ? AND slot = ?";
+    private static final String INSERT_SQL =
+            "INSERT INTO sales_rollup_hourly (bucket_day, bucket_hour, slot, order_count, revenue) VALUES (?, ?, ?, ?, ?)";
+    private static final String CATEGORY_INCREMENT_SQL =
+            "UPDATE sales_rollup_category SET quantity = quantity + ?, revenue = revenue + ? WHERE category = ? AND slot = ?";
+    private static final String CATEGORY_INSERT_SQL =
+            "INSERT INTO sales_rollup_category (category, slot, quantity, revenue) VALUES (?, ?, ?, ?)";
+
+    // Items placed before categories were recorded whose meal no longer exists
+    public static final String UNCATEGORIZED = "Uncategorized";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final SalesRollupRepository salesRollupRepository;
+    private final CategorySalesRepository categorySalesRepository;
+    private final int slots;
+
+    public SalesRollupService(JdbcTemplate jdbcTemplate, TransactionTemplate transactionTemplate,
+                              SalesRollupRepository salesRollupRepository,
+                              CategorySalesRepository categorySalesRepository,
+                              @Value("${app.rollup.slots:8}") int slots) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.transactionTemplate = transactionTemplate;
+        this.salesRollupRepository = salesRollupRepository;
+        this.categorySalesRepository = categorySalesRepository;
+        this.slots = Math.max(1, slots);
+    }
+
+    // Runs in OrderService's transaction, so the rollup changes only if the order insert or delete commits
+    public void ordersCreated(Order order) {
+        int slot = pickSlot();
+        adjust(hourOf(order.getOrderDate()), slot, 1, amountOf(order));
+        for (Map.Entry<String, Bucket> entry : groupByCategory(List.of(order)).entrySet()) {
+            adjustCategory(entry.getKey(), slot, entry.getValue().orders, entry.getValue().revenue);
+        }
+    }
+
+    // Orders must have their items loaded
+    public void ordersRemoved(Collection<Order> orders) {
+        int slot = pickSlot();
+        for (Map.Entry<LocalDateTime, Bucket> entry : group(orders).entrySet()) {
+            Bucket bucket = entry.getValue();
+            adjust(entry.getKey(), slot, -bucket.orders, bucket.revenue.negate());
+        }
+        for (Map.Entry<String, Bucket> entry : groupByCategory(orders).entrySet()) {
+            Bucket bucket = entry.getValue();
+            adjustCategory(entry.getKey(), slot, -bucket.orders, bucket.revenue.negate());
+        }
+    }
+
+    // Revenue per category, highest first
+    public List<Map<String, Object>> categoryTotals() {
+        return categorySalesRepository.findTotals();
+    }
+
+    // Daily totals, newest day first; both bounds are inclusive
+    public List<Map<String, Object>> dailyTotals(LocalDate from, LocalDate to) {
+        return salesRollupRepository.findDailyTotals(from, to);
+    }
+
+    public List<Map<String, Object>> hourlyTotals(LocalDate from, LocalDate to) {
+        return salesRollupRepository.findHourlyTotals(from, to);
+    }
+
+    // Orders placed before the rollups existed are picked up on the first start
+    @EventListener(ApplicationReadyEvent.class)
+    public void backfillIfEmpty() {
+        if (salesRollupRepository.count() == 0) {
+            int buckets = rebuild();
+            if (buckets > 0) {
+                log.info("Sales rollup backfilled with {} hourly buckets", buckets);
+            }
+        }
+        if (categorySalesRepository.count() == 0) {
+            int items = backfillItemCategories();
+            int categories = rebuildCategories();
+            if (categories > 0) {
+                log.info("Category rollup backfilled with {} categories ({} older items tagged)", categories, items);
+            }
+        }
+    }
+
+    // One-off copy of the meal category onto items recorded before the column existed
+    public int backfillItemCategories() {
+        return jdbcTemplate.update("UPDATE order_items SET category = " +
+                "(SELECT m.category FROM meals m WHERE m.id = order_items.meal_id) WHERE category IS NULL");
+    }
+
+    public int rebuildCategories() {
+        Map<String, Bucket> totals = new TreeMap<>();
+        jdbcTemplate.query("SELECT category, SUM(quantity), SUM(price * quantity) FROM order_items GROUP BY category", rs -> {
+            String category = rs.getString(1) != null ? rs.getString(1) : UNCATEGORIZED;
+            BigDecimal revenue = rs.getBigDecimal(3);
+            totals.computeIfAbsent(category, key -> new Bucket())
+                    .add(rs.getLong(2), revenue != null ? revenue : BigDecimal.ZERO);
+        });
+
+        List<Object[]> rows = new ArrayList<>(totals.size());
+        totals.forEach((category, bucket) -> rows.add(new Object[] {category, 0, bucket.orders, bucket.revenue}));
+        transactionTemplate.executeWithoutResult(status -> {
+            jdbcTemplate.update("DELETE FROM sales_rollup_category");
+            jdbcTemplate.batchUpdate(CATEGORY_INSERT_SQL, rows);
+        });
+        return rows.size();
+    }
+
+    /**
+     * Recomputes every bucket from the orders table into slot 0. Orders are
+     * read in one pass over a forward-only cursor and only the per-hour sums
+     * are held in memory. Orders created while the rebuild runs may be counted
+     * twice or not at all, so run it at startup or in a quiet period.
+     */
+    public int rebuild() {
+        Map<LocalDateTime, Bucket> buckets = new TreeMap<>();
+        jdbcTemplate.query(StreamingQueries.forwardOnly("SELECT order_date, total_amount FROM orders"), rs -> {
+            Timestamp orderDate = rs.getTimestamp(1);
+            if (orderDate == null) {
+                return;
+            }
+            BigDecimal amount = rs.getBigDecimal(2);
+            buckets.computeIfAbsent(hourOf(orderDate.toLocalDateTime()), hour -> new Bucket())
+                    .add(1, amount != null ? amount : BigDecimal.ZERO);
+        });
+
+        List<Object[]> rows = new ArrayList<>(buckets.size());
+        buckets.forEach((hour, bucket) -> rows.add(new Object[] {
+                Date.valueOf(hour.toLocalDate()), hour.getHour(), 0, bucket.orders, bucket.revenue}));
+        transactionTemplate.executeWithoutResult(status -> {
+            jdbcTemplate.update("DELETE FROM sales_rollup_hourly");
+            jdbcTemplate.batchUpdate(INSERT_SQL, rows);
+        });
+        return rows.size();
+    }
+
+    // One slot per call, and categories in sorted order, so two orders lock shared rows in the same order
+    private int pickSlot() {
+        return ThreadLocalRandom.current().nextInt(slots);
+    }
+
+    private void adjust(LocalDateTime hour, int slot, long orders, BigDecimal revenue) {
+        Date day = Date.valueOf(hour.toLocalDate());
+        upsert(INCREMENT_SQL, new Object[] {orders, revenue, day, hour.getHour(), slot},
+                INSERT_SQL, new Object[] {day, hour.getHour(), slot, orders, revenue});
+    }
+
+    private void adjustCategory(String category, int slot, long quantity, BigDecimal revenue) {
+        upsert(CATEGORY_INCREMENT_SQL, new Object[] {quantity, revenue, category, slot},
+                CATEGORY_INSERT_SQL, new Object[] {category, slot, quantity, revenue});
+    }
+
+    private void upsert(String incrementSql, Object[] incrementArgs, String insertSql, Object[] insertArgs) {
+        if (jdbcTemplate.update(incrementSql, incrementArgs) > 0) {
+            return;
+        }
+        try {
+            jdbcTemplate.update(insertSql, insertArgs);
+        } catch (DuplicateKeyException e) {
+            // Another request created the row between our update and insert
+            jdbcTemplate.update(incrementSql, incrementArgs);
+        }
+    }
+
+    private static Map<LocalDateTime, Bucket> group(Collection<Order> orders) {
+        Map<LocalDateTime, Bucket> buckets = new TreeMap<>();
+        for (Order order : orders) {
+            if (order.getOrderDate() != null) {
+                buckets.computeIfAbsent(hourOf(order.getOrderDate()), hour -> new Bucket()).add(1, amountOf(order));
+            }
+        }
+        return buckets;
+    }
+
+    // Bucket.orders holds the item quantity here
+    private static Map<String, Bucket> groupByCategory(Collection<Order> orders) {
+        Map<String, Bucket> buckets = new TreeMap<>();
+        for (Order order : orders) {
+            for (OrderItem item : order.getItems()) {
+                String category = item.getCategory() != null ? item.getCategory() : UNCATEGORIZED;
+                BigDecimal amount = item.getPrice().multiply(BigDecimal.valueOf(item.getQuantity()));
+                buckets.computeIfAbsent(category, key -> new Bucket()).add(item.getQuantity(), amount);
+            }
+        }
+        return buckets;
+    }
+
+    private static LocalDateTime hourOf(LocalDateTime orderDate) {
+        return orderDate.truncatedTo(ChronoUnit.HOURS);
+    }
+
+    private static BigDecimal amountOf(Order order) {
+        return order.getTotalAmount() != null ? order.getTotalAmount() : BigDecimal.ZERO;
+    }
+
+    private static final class Bucket {
+        private long orders;
+        private BigDecimal revenue = BigDecimal.ZERO;
+
+        private void add(long count, BigDecimal amount) {
+            orders += count;
+            revenue = revenue.add(amount);
+        }
+    }
+}
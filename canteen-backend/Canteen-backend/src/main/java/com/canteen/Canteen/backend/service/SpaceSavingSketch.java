@@ -0,0 +1,80 @@
+package com.canteen.Canteen.backend.service;
+
+import com.canteen.Canteen.backend.dto.TopSellingItemDTO;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Space-Saving heavy-hitter summary: tracks at most {@code capacity} keys and,
+ * when a new key arrives while full, takes over the slot of the smallest
+ * count. Counts are exact while the number of distinct keys stays within
+ * capacity (a canteen menu normally does) and otherwise overestimate by at
+ * most the evicted count. Not thread-safe; callers synchronize.
+ */
+public class SpaceSavingSketch {
+
+    private final int capacity;
+    private final Map<String, long[]> counts; // key -> {count, error}
+
+    public SpaceSavingSketch(int capacity) {
+        this.capacity = capacity;
+        this.counts = new HashMap<>(capacity * 2);
+    }
+
+    public void add(String key, long amount) {
+        if (key == null) {
+            return;
+        }
+        long[] counter = counts.get(key);
+        if (counter != null) {
+            counter[0] += amount;
+            return;
+        }
+        if (counts.size() < capacity) {
+            counts.put(key, new long[] {amount, 0L});
+            return;
+        }
+        String smallest = null;
+        long min = Long.MAX_VALUE;
+        for (Map.Entry<String, long[]> entry : counts.entrySet()) {
+            if (entry.getValue()[0] < min) {
+                min = entry.getValue()[0];
+                smallest = entry.getKey();
+            }
+        }
+        counts.remove(smallest);
+        counts.put(key, new long[] {min + amount, min});
+    }
+
+    // Undo for deleted orders; only exact while no key has been evicted
+    public void subtract(String key, long amount) {
+        long[] counter = counts.get(key);
+        if (counter == null) {
+            return;
+        }
+        counter[0] -= amount;
+        if (counter[0] <= 0) {
+            counts.remove(key);
+        }
+    }
+
+    public void mergeInto(Map<String, Long> totals) {
+        counts.forEach((key, counter) -> totals.merge(key, counter[0], Long::sum));
+    }
+
+    public void clear() {
+        counts.clear();
+    }
+
+    public static List<TopSellingItemDTO> top(Map<String, Long> totals, int limit) {
+        List<TopSellingItemDTO> items = new ArrayList<>(totals.size());
+        totals.forEach((key, count) -> items.add(new TopSellingItemDTO(key, count)));
+        items.sort(Comparator.comparingLong(TopSellingItemDTO::getTotalQuantity).reversed()
+                .thenComparing(TopSellingItemDTO::getMealName));
+        return items.size() > limit ? new ArrayList<>(items.subList(0, limit)) : items;
+    }
+}
@@ -0,0 +1,29 @@
+package com.canteen.Canteen.backend.service;
+
+import com.canteen.Canteen.backend.model.Staff;
+import jakarta.persistence.PostPersist;
+import jakarta.persistence.PostRemove;
+import org.springframework.context.annotation.Lazy;
+import org.springframework.stereotype.Component;
+
+// Hibernate instantiates entity listeners itself, so the counters live in the injected singleton.
+// The lazy proxy breaks the cycle through OrderRepository while the EntityManagerFactory is being built.
+@Component
+public class StaffMetricsListener {
+
+    private final DashboardMetricsService dashboardMetricsService;
+
+    public StaffMetricsListener(@Lazy DashboardMetricsService dashboardMetricsService) {
+        this.dashboardMetricsService = dashboardMetricsService;
+    }
+
+    @PostPersist
+    public void afterPersist(Staff staff) {
+        dashboardMetricsService.userCreated();
+    }
+
+    @PostRemove
+    public void afterRemove(Staff staff) {
+        dashboardMetricsService.userRemoved();
+    }
+}
@@ -0,0 +1,26 @@
+package com.canteen.Canteen.backend.service;
+
+import org.springframework.jdbc.core.PreparedStatementCreator;
+
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+
+// Statements for queries that scan a whole table, so rows reach the handler as they are read instead of all at once
+final class StreamingQueries {
+
+    private static final int FETCH_SIZE = 500;
+
+    private StreamingQueries() {
+    }
+
+    static PreparedStatementCreator forwardOnly(String sql) {
+        return connection -> {
+            PreparedStatement statement = connection.prepareStatement(
+                    sql, ResultSet.TYPE_FORWARD_ONLY, ResultSet.CONCUR_READ_ONLY);
+            // MySQL Connector/J only streams rows instead of buffering the whole result for Integer.MIN_VALUE
+            boolean mysql = connection.getMetaData().getDatabaseProductName().toLowerCase().contains("mysql");
+            statement.setFetchSize(mysql ? Integer.MIN_VALUE : FETCH_SIZE);
+            return statement;
+        };
+    }
+}
@@ -0,0 +1,93 @@
+package com.canteen.Canteen.backend.service;
+
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.Map;
+
+/**
+ * Token buckets keyed by an arbitrary string (the JWT subject for order
+ * intake). Keys are spread over a fixed number of lock stripes, so callers
+ * only contend when their keys share a stripe. Buckets that have refilled
+ * completely are dropped once a stripe grows large, since a fresh bucket is
+ * equivalent.
+ */
+public class TokenBucketRateLimiter {
+
+    private static final int MAX_KEYS_PER_STRIPE = 1024;
+
+    private final double capacity;
+    private final double tokensPerNano;
+    private final Stripe[] stripes;
+
+    public TokenBucketRateLimiter(int capacity, double refillPerSecond, int stripeCount) {
+        if (capacity <= 0 || refillPerSecond <= 0) {
+            throw new IllegalArgumentException("Capacity and refill rate must be positive");
+        }
+        this.capacity = capacity;
+        this.tokensPerNano = refillPerSecond / 1_000_000_000.0;
+        // Power of two so the stripe index is a mask
+        int size = Integer.highestOneBit(Math.max(1, stripeCount - 1)) << 1;
+        this.stripes = new Stripe[size];
+        for (int i = 0; i < size; i++) {
+            stripes[i] = new Stripe();
+        }
+    }
+
+    // Returns 0 when a token was taken, otherwise the nanoseconds until one is available
+    public long tryAcquire(String key, long nowNanos) {
+        Stripe stripe = stripes[spread(key.hashCode()) & (stripes.length - 1)];
+        synchronized (stripe) {
+            Bucket bucket = stripe.buckets.get(key);
+            if (bucket == null) {
+                if (stripe.buckets.size() >= MAX_KEYS_PER_STRIPE) {
+                    stripe.evictFull(nowNanos);
+                }
+                bucket = new Bucket(capacity, nowNanos);
+                stripe.buckets.put(key, bucket);
+            }
+            bucket.refill(nowNanos);
+            if (bucket.tokens >= 1.0) {
+                bucket.tokens -= 1.0;
+                return 0L;
+            }
+            return Math.max(1L, (long) Math.ceil((1.0 - bucket.tokens) / tokensPerNano));
+        }
+    }
+
+    private static int spread(int hash) {
+        return hash ^ (hash >>> 16);
+    }
+
+    private final class Stripe {
+        private final Map<String, Bucket> buckets = new HashMap<>();
+
+        private void evictFull(long nowNanos) {
+            Iterator<Bucket> iterator = buckets.values().iterator();
+            while (iterator.hasNext()) {
+                Bucket bucket = iterator.next();
+                bucket.refill(nowNanos);
+                if (bucket.tokens >= capacity) {
+                    iterator.remove();
+                }
+            }
+        }
+    }
+
+    private final class Bucket {
+        private double tokens;
+        private long updatedAt;
+
+        private Bucket(double tokens, long updatedAt) {
+            this.tokens = tokens;
+            this.updatedAt = updatedAt;
+        }
+
+        private void refill(long nowNanos) {
+            long elapsed = nowNanos - updatedAt;
+            if (elapsed > 0) {
+                tokens = Math.min(capacity, tokens + elapsed * tokensPerNano);
+                updatedAt = nowNanos;
+            }
+        }
+    }
+}
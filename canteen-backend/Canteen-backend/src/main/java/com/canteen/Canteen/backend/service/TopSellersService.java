@@ -0,0 +1,225 @@
+package com.canteen.Canteen.backend.service;
+
+import com.canteen.Canteen.backend.dto.TopSellingItemDTO;
+import com.canteen.Canteen.backend.model.Order;
+import com.canteen.Canteen.backend.model.OrderItem;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.SmartInitializingSingleton;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.sql.Timestamp;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Top-selling meals by quantity for today, the last 7 days and all time,
+ * kept in memory so dashboards never group the order_items table. All time
+ * is one Space-Saving sketch; the 7-day window is a ring of daily sketches
+ * merged on read, so yesterday's sales drop out without rescanning anything.
+ * Built from the database before the web server accepts requests. A rebuild
+ * while orders keep arriving replays the orders that commit during its reads
+ * onto the new sketches, so none of them is lost.
+ */
+@Slf4j
+@Service
+public class TopSellersService implements SmartInitializingSingleton {
+
+    public enum Window { TODAY, WEEK, ALL_TIME }
+
+    private static final int DAYS = 7;
+
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate snapshotRead;
+    private final int capacity;
+
+    private final SpaceSavingSketch allTime;
+    private final SpaceSavingSketch[] days = new SpaceSavingSketch[DAYS];
+    private final long[] slotDay = new long[DAYS]; // epoch day held by each slot
+
+    // Guarded by this; merged results are reused until the next change or day rollover
+    private long version;
+    private final Map<Window, Cached> cache = new HashMap<>();
+    // Guarded by this; changes committed while a rebuild reads, null when none is running
+    private List<Runnable> pending;
+
+    // A lock rather than synchronized: the queries inside would pin a virtual thread's carrier
+    private final ReentrantLock rebuildLock = new ReentrantLock();
+
+    public TopSellersService(JdbcTemplate jdbcTemplate, PlatformTransactionManager transactionManager,
+                             @Value("${app.top-sellers.capacity:200}") int capacity) {
+        this.jdbcTemplate = jdbcTemplate;
+        // Both rebuild queries read one snapshot, so an order is in both or in neither
+        this.snapshotRead = new TransactionTemplate(transactionManager);
+        this.snapshotRead.setReadOnly(true);
+        this.snapshotRead.setIsolationLevel(TransactionDefinition.ISOLATION_REPEATABLE_READ);
+        this.capacity = capacity;
+        this.allTime = new SpaceSavingSketch(capacity);
+        for (int i = 0; i < DAYS; i++) {
+            days[i] = new SpaceSavingSketch(capacity);
+            slotDay[i] = Long.MIN_VALUE;
+        }
+    }
+
+    @Override
+    public void afterSingletonsInstantiated() {
+        rebuild();
+    }
+
+    /**
+     * Reloads the sketches from the database. Orders that commit while the
+     * queries run are applied to the old sketches as usual and replayed onto
+     * the new ones; only an order committing in the instant before the
+     * snapshot is taken can be counted twice.
+     */
+    public void rebuild() {
+        rebuildLock.lock();
+        try {
+            synchronized (this) {
+                pending = new ArrayList<>();
+            }
+            long today = LocalDate.now().toEpochDay();
+            Map<String, Long> totals = new HashMap<>();
+            Map<Long, Map<String, Long>> recent = new HashMap<>();
+            try {
+                snapshotRead.executeWithoutResult(status -> {
+                    jdbcTemplate.query("SELECT meal_name, SUM(quantity) FROM order_items GROUP BY meal_name",
+                            rs -> { totals.put(rs.getString(1), rs.getLong(2)); });
+                    jdbcTemplate.query("SELECT o.order_date, oi.meal_name, oi.quantity FROM order_items oi " +
+                                    "JOIN orders o ON o.id = oi.order_id WHERE o.order_date >= ?",
+                            rs -> {
+                                long day = rs.getTimestamp(1).toLocalDateTime().toLocalDate().toEpochDay();
+                                recent.computeIfAbsent(day, key -> new HashMap<>())
+                                        .merge(rs.getString(2), (long) rs.getInt(3), Long::sum);
+                            },
+                            Timestamp.valueOf(LocalDate.ofEpochDay(today - DAYS + 1).atStartOfDay()));
+                });
+
+                synchronized (this) {
+                    allTime.clear();
+                    totals.forEach(allTime::add);
+                    for (int i = 0; i < DAYS; i++) {
+                        days[i].clear();
+                        slotDay[i] = Long.MIN_VALUE;
+                    }
+                    recent.forEach((day, sales) -> {
+                        if (day <= today) {
+                            SpaceSavingSketch sketch = slotFor(day);
+                            sales.forEach(sketch::add);
+                        }
+                    });
+                    pending.forEach(Runnable::run);
+                    changed();
+                }
+            } finally {
+                synchronized (this) {
+                    pending = null;
+                }
+            }
+            log.info("Top sellers rebuilt: {} meals all time, {} days of recent sales", totals.size(), recent.size());
+        } finally {
+            rebuildLock.unlock();
+        }
+    }
+
+    public List<TopSellingItemDTO> top(Window window, int limit) {
+        long today = LocalDate.now().toEpochDay();
+        synchronized (this) {
+            Cached cached = cache.get(window);
+            if (cached == null || cached.version != version || cached.day != today) {
+                Map<String, Long> totals = new HashMap<>();
+                if (window == Window.ALL_TIME) {
+                    allTime.mergeInto(totals);
+                } else {
+                    for (int i = 0; i < DAYS; i++) {
+                        long age = today - slotDay[i];
+                        if (age == 0 || (window == Window.WEEK && age > 0 && age < DAYS)) {
+                            days[i].mergeInto(totals);
+                        }
+                    }
+                }
+                cached = new Cached(version, today, SpaceSavingSketch.top(totals, capacity));
+                cache.put(window, cached);
+            }
+            return cached.items.size() > limit ? List.copyOf(cached.items.subList(0, limit)) : cached.items;
+        }
+    }
+
+    public void orderCreated(Order order) {
+        TransactionHooks.afterCommit(() -> apply(() -> {
+            SpaceSavingSketch today = order.getOrderDate() != null
+                    ? slotFor(order.getOrderDate().toLocalDate().toEpochDay()) : null;
+            for (OrderItem item : order.getItems()) {
+                allTime.add(item.getMealName(), item.getQuantity());
+                if (today != null) {
+                    today.add(item.getMealName(), item.getQuantity());
+                }
+            }
+        }));
+    }
+
+    // Orders must have their items loaded
+    public void ordersRemoved(Collection<Order> orders) {
+        TransactionHooks.afterCommit(() -> apply(() -> {
+            for (Order order : orders) {
+                SpaceSavingSketch day = order.getOrderDate() != null
+                        ? existingSlot(order.getOrderDate().toLocalDate().toEpochDay()) : null;
+                for (OrderItem item : order.getItems()) {
+                    allTime.subtract(item.getMealName(), item.getQuantity());
+                    if (day != null) {
+                        day.subtract(item.getMealName(), item.getQuantity());
+                    }
+                }
+            }
+        }));
+    }
+
+    // Runs a committed change against the sketches, and keeps it for the rebuild in progress, if any
+    private synchronized void apply(Runnable change) {
+        change.run();
+        if (pending != null) {
+            pending.add(change);
+        }
+        changed();
+    }
+
+    // Reuses the slot of a day that has left the window
+    private SpaceSavingSketch slotFor(long epochDay) {
+        int slot = (int) Math.floorMod(epochDay, (long) DAYS);
+        if (slotDay[slot] != epochDay) {
+            days[slot].clear();
+            slotDay[slot] = epochDay;
+        }
+        return days[slot];
+    }
+
+    private SpaceSavingSketch existingSlot(long epochDay) {
+        int slot = (int) Math.floorMod(epochDay, (long) DAYS);
+        return slotDay[slot] == epochDay ? days[slot] : null;
+    }
+
+    private void changed() {
+        version++;
+    }
+
+    private static final class Cached {
+        private final long version;
+        private final long day;
+        private final List<TopSellingItemDTO> items;
+
+        private Cached(long version, long day, List<TopSellingItemDTO> items) {
+            this.version = version;
+            this.day = day;
+            this.items = List.copyOf(items);
+        }
+    }
+}
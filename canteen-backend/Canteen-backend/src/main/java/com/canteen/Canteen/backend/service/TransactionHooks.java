@@ -0,0 +1,25 @@
+package com.canteen.Canteen.backend.service;
+
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+// Defers in-memory side effects of a database change until that change is committed
+final class TransactionHooks {
+
+    private TransactionHooks() {
+    }
+
+    // Runs immediately when no transaction is active (the write has already been committed)
+    static void afterCommit(Runnable action) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    action.run();
+                }
+            });
+        } else {
+            action.run();
+        }
+    }
+}
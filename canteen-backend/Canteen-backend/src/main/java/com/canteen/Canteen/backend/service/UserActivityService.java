@@ -0,0 +1,238 @@
+package com.canteen.Canteen.backend.service;
+
+import com.canteen.Canteen.backend.model.Order;
+import com.canteen.Canteen.backend.repository.UserOrderStatsRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.SmartInitializingSingleton;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.TreeSet;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Order count and spend per user. The user_order_stats table is adjusted in
+ * the same transaction as each order insert or delete, and an in-memory index
+ * sorted by order count is updated once the change commits, so the most
+ * active users are read off the front of the index instead of grouping the
+ * orders table. The index is loaded before the web server accepts requests;
+ * when it is reloaded later, changes that commit during the read are replayed
+ * onto the loaded index.
+ */
+@Slf4j
+@Service
+public class UserActivityService implements SmartInitializingSingleton {
+
+    private static final String INCREMENT_SQL =
+            "UPDATE user_order_stats SET order_count = order_count + ?, total_spent = total_spent + ? WHERE username = ?";
+    private static final String INSERT_SQL =
+            "INSERT INTO user_order_stats (username, order_count, total_spent) VALUES (?, ?, ?)";
+
+    private static final Comparator<Activity> MOST_ORDERS =
+            Comparator.comparingLong((Activity activity) -> activity.orders).reversed()
+                    .thenComparing(activity -> activity.username);
+
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final UserOrderStatsRepository userOrderStatsRepository;
+
+    // Guarded by this; an entry is taken out of the index before its counts change
+    private final Map<String, Activity> byUser = new HashMap<>();
+    private final TreeSet<Activity> index = new TreeSet<>(MOST_ORDERS);
+    // Guarded by this; index changes committed while the index is being read back, null otherwise
+    private List<Activity> pending;
+
+    // A lock rather than synchronized: the query inside would pin a virtual thread's carrier
+    private final ReentrantLock reloadLock = new ReentrantLock();
+
+    public UserActivityService(JdbcTemplate jdbcTemplate, TransactionTemplate transactionTemplate,
+                               UserOrderStatsRepository userOrderStatsRepository) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.transactionTemplate = transactionTemplate;
+        this.userOrderStatsRepository = userOrderStatsRepository;
+    }
+
+    @Override
+    public void afterSingletonsInstantiated() {
+        load();
+    }
+
+    public void load() {
+        if (userOrderStatsRepository.count() == 0) {
+            int users = rebuild();
+            if (users > 0) {
+                log.info("User order stats backfilled for {} users", users);
+            }
+            return;
+        }
+        reloadIndex();
+    }
+
+    // Most active users first, as {username, orders, spent}
+    public List<Map<String, Object>> topUsers(int limit) {
+        List<Map<String, Object>> top = new ArrayList<>(limit);
+        synchronized (this) {
+            Iterator<Activity> iterator = index.iterator();
+            while (top.size() < limit && iterator.hasNext()) {
+                Activity activity = iterator.next();
+                top.add(Map.of("username", activity.username, "orders", activity.orders, "spent", activity.spent));
+            }
+        }
+        return top;
+    }
+
+    // Runs in OrderService's transaction; the index follows only once it commits
+    public void orderCreated(Order order) {
+        if (order.getUsername() == null) {
+            return;
+        }
+        BigDecimal amount = amountOf(order);
+        adjust(order.getUsername(), 1, amount);
+        TransactionHooks.afterCommit(() -> adjustIndex(order.getUsername(), 1, amount));
+    }
+
+    public void ordersRemoved(Collection<Order> orders) {
+        Map<String, Activity> removed = new TreeMap<>();
+        for (Order order : orders) {
+            if (order.getUsername() != null) {
+                removed.computeIfAbsent(order.getUsername(), Activity::new).add(1, amountOf(order));
+            }
+        }
+        for (Activity activity : removed.values()) {
+            adjust(activity.username, -activity.orders, activity.spent.negate());
+        }
+        TransactionHooks.afterCommit(() -> removed.values()
+                .forEach(activity -> adjustIndex(activity.username, -activity.orders, activity.spent.negate())));
+    }
+
+    /**
+     * Recomputes every user's totals from the orders table and reloads the
+     * index. Orders that commit between reading the orders and rewriting the
+     * table may be missed from the table, so run it at startup or in a quiet
+     * period; the index keeps changes that commit while it is read back.
+     */
+    public int rebuild() {
+        List<Object[]> rows = new ArrayList<>();
+        jdbcTemplate.query("SELECT username, COUNT(*), SUM(total_amount) FROM orders " +
+                "WHERE username IS NOT NULL GROUP BY username", rs -> {
+            BigDecimal spent = rs.getBigDecimal(3);
+            rows.add(new Object[] {rs.getString(1), rs.getLong(2), spent != null ? spent : BigDecimal.ZERO});
+        });
+        transactionTemplate.executeWithoutResult(status -> {
+            jdbcTemplate.update("DELETE FROM user_order_stats");
+            jdbcTemplate.batchUpdate(INSERT_SQL, rows);
+        });
+        reloadIndex();
+        return rows.size();
+    }
+
+    private void reloadIndex() {
+        reloadLock.lock();
+        try {
+            synchronized (this) {
+                pending = new ArrayList<>();
+            }
+            try {
+                Map<String, Activity> loaded = new HashMap<>();
+                jdbcTemplate.query("SELECT username, order_count, total_spent FROM user_order_stats WHERE order_count > 0", rs -> {
+                    Activity activity = new Activity(rs.getString(1));
+                    activity.add(rs.getLong(2), rs.getBigDecimal(3));
+                    loaded.put(activity.username, activity);
+                });
+                synchronized (this) {
+                    byUser.clear();
+                    byUser.putAll(loaded);
+                    index.clear();
+                    index.addAll(loaded.values());
+                    for (Activity change : pending) {
+                        applyToIndex(change.username, change.orders, change.spent);
+                    }
+                }
+            } finally {
+                synchronized (this) {
+                    pending = null;
+                }
+            }
+        } finally {
+            reloadLock.unlock();
+        }
+    }
+
+    private void adjust(String username, long orders, BigDecimal spent) {
+        if (jdbcTemplate.update(INCREMENT_SQL, orders, spent, username) > 0) {
+            if (orders < 0) {
+                jdbcTemplate.update("DELETE FROM user_order_stats WHERE username = ? AND order_count <= 0", username);
+            }
+            return;
+        }
+        if (orders < 0) {
+            return;
+        }
+        try {
+            jdbcTemplate.update(INSERT_SQL, username, orders, spent);
+        } catch (DuplicateKeyException e) {
+            // Another request created the row between our update and insert
+            jdbcTemplate.update(INCREMENT_SQL, orders, spent, username);
+        }
+    }
+
+    // Runs once the change commits; kept for the reload in progress, if any
+    private synchronized void adjustIndex(String username, long orders, BigDecimal spent) {
+        applyToIndex(username, orders, spent);
+        if (pending != null) {
+            Activity change = new Activity(username);
+            change.add(orders, spent);
+            pending.add(change);
+        }
+    }
+
+    // Callers hold this
+    private void applyToIndex(String username, long orders, BigDecimal spent) {
+        Activity activity = byUser.get(username);
+        if (activity == null) {
+            if (orders <= 0) {
+                return;
+            }
+            activity = new Activity(username);
+            byUser.put(username, activity);
+        } else {
+            index.remove(activity);
+        }
+        activity.add(orders, spent);
+        if (activity.orders > 0) {
+            index.add(activity);
+        } else {
+            byUser.remove(username);
+        }
+    }
+
+    private static BigDecimal amountOf(Order order) {
+        return order.getTotalAmount() != null ? order.getTotalAmount() : BigDecimal.ZERO;
+    }
+
+    private static final class Activity {
+        private final String username;
+        private long orders;
+        private BigDecimal spent = BigDecimal.ZERO;
+
+        private Activity(String username) {
+            this.username = username;
+        }
+
+        private void add(long count, BigDecimal amount) {
+            orders += count;
+            spent = spent.add(amount != null ? amount : BigDecimal.ZERO);
+        }
+    }
+}
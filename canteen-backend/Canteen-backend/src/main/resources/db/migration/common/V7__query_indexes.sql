@@ -0,0 +1,22 @@
+-- Indexes for the order, menu and report access paths. Newest-first columns are
+-- declared DESC to match the ORDER BY of the keyset queries in OrderRepository.
+
+-- Order history pages, findByUsername / deleteByUsername, user activity rebuild
+CREATE INDEX idx_orders_username_date ON orders (username, order_date DESC, id DESC);
+
+-- Admin order pages, recent orders, date-range scans in the rollup and top-seller rebuilds
+CREATE INDEX idx_orders_date ON orders (order_date DESC, id DESC);
+
+-- Admin order pages filtered by status, kitchen board rebuild (findAllWithItemsByStatusIn)
+CREATE INDEX idx_orders_status_date ON orders (status, order_date DESC, id DESC);
+
+-- order_items(order_id), used by the fetch joins, already has the index MySQL and H2 create for its foreign key
+
+-- Item category backfill from meals
+CREATE INDEX idx_order_items_meal_id ON order_items (meal_id);
+
+-- Top sellers grouped by meal name; quantity makes the index covering
+CREATE INDEX idx_order_items_meal_name ON order_items (meal_name, quantity);
+
+-- MealRepository.findByName (menu seeding)
+CREATE INDEX idx_meals_name ON meals (name);
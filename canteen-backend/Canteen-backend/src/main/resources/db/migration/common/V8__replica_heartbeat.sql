@@ -0,0 +1,5 @@
+-- Stamped on the primary by ReplicaLagMonitor and read back from the replica to measure replication lag
+CREATE TABLE replica_heartbeat (
+    id          INTEGER NOT NULL PRIMARY KEY,
+    beat_millis BIGINT  NOT NULL
+);
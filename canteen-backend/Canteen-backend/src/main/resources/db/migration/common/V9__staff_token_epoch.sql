@@ -0,0 +1,2 @@
+-- Per-user token epoch (TokenEpochService); tokens carrying a lower epoch are rejected
+ALTER TABLE staff ADD COLUMN token_epoch BIGINT DEFAULT 0 NOT NULL;
@@ -0,0 +1,8 @@
+-- H2 copy of mysql/V10
+ALTER TABLE sales_rollup_hourly ADD COLUMN slot INTEGER DEFAULT 0 NOT NULL;
+ALTER TABLE sales_rollup_hourly DROP PRIMARY KEY;
+ALTER TABLE sales_rollup_hourly ADD PRIMARY KEY (bucket_day, bucket_hour, slot);
+
+ALTER TABLE sales_rollup_category ADD COLUMN slot INTEGER DEFAULT 0 NOT NULL;
+ALTER TABLE sales_rollup_category DROP PRIMARY KEY;
+ALTER TABLE sales_rollup_category ADD PRIMARY KEY (category, slot);
@@ -0,0 +1,48 @@
+-- H2 copy of mysql/V1 for tests and local runs; keep the two in step.
+
+CREATE TABLE IF NOT EXISTS staff (
+    username   VARCHAR(50)  NOT NULL PRIMARY KEY,
+    password   VARCHAR(255) NOT NULL,
+    name       VARCHAR(255) NOT NULL,
+    role       VARCHAR(20)  NOT NULL,
+    department VARCHAR(100),
+    staff_id   VARCHAR(20)  NOT NULL,
+    CONSTRAINT uk_staff_staff_id UNIQUE (staff_id)
+);
+
+CREATE TABLE IF NOT EXISTS meals (
+    id          BIGINT GENERATED BY DEFAULT AS IDENTITY PRIMARY KEY,
+    name        VARCHAR(255)  NOT NULL,
+    description VARCHAR(255),
+    price       NUMERIC(38,2) NOT NULL,
+    category    VARCHAR(255),
+    image_url   VARCHAR(255),
+    available   BOOLEAN       NOT NULL
+);
+
+CREATE TABLE IF NOT EXISTS orders (
+    id           BIGINT GENERATED BY DEFAULT AS IDENTITY PRIMARY KEY,
+    username     VARCHAR(255)  NOT NULL,
+    order_date   TIMESTAMP(6)  NOT NULL,
+    total_amount NUMERIC(38,2) NOT NULL,
+    status       VARCHAR(255)  NOT NULL
+);
+
+CREATE TABLE IF NOT EXISTS order_items (
+    id        BIGINT GENERATED BY DEFAULT AS IDENTITY PRIMARY KEY,
+    order_id  BIGINT        NOT NULL,
+    meal_id   INTEGER       NOT NULL,
+    meal_name VARCHAR(255)  NOT NULL,
+    quantity  INTEGER       NOT NULL,
+    price     NUMERIC(38,2) NOT NULL,
+    CONSTRAINT fk_order_items_order FOREIGN KEY (order_id) REFERENCES orders (id)
+);
+
+-- TEXT on MySQL; H2 would report a CLOB, which schema validation does not accept for a String
+CREATE TABLE IF NOT EXISTS feedback (
+    id              BIGINT GENERATED BY DEFAULT AS IDENTITY PRIMARY KEY,
+    username        VARCHAR(255)   NOT NULL,
+    rating          INTEGER        NOT NULL,
+    comments        VARCHAR(65535),
+    submission_date TIMESTAMP(6)   NOT NULL
+);
@@ -0,0 +1,5 @@
+-- H2 copy of mysql/V2
+CREATE TABLE id_generators (
+    sequence_name VARCHAR(255) NOT NULL PRIMARY KEY,
+    next_val      BIGINT
+);
@@ -0,0 +1,7 @@
+-- H2 copy of mysql/V3
+CREATE TABLE idempotency_keys (
+    scoped_key VARCHAR(255) NOT NULL PRIMARY KEY,
+    order_id   BIGINT       NOT NULL,
+    created_at TIMESTAMP(6) NOT NULL
+);
+CREATE INDEX idx_idempotency_created_at ON idempotency_keys (created_at);
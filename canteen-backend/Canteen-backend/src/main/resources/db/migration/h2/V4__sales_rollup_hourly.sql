@@ -0,0 +1,8 @@
+-- H2 copy of mysql/V4
+CREATE TABLE sales_rollup_hourly (
+    bucket_day  DATE          NOT NULL,
+    bucket_hour INTEGER       NOT NULL,
+    order_count BIGINT        NOT NULL,
+    revenue     NUMERIC(19,2) NOT NULL,
+    PRIMARY KEY (bucket_day, bucket_hour)
+);
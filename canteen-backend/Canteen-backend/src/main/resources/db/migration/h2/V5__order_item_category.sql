@@ -0,0 +1,8 @@
+-- H2 copy of mysql/V5
+ALTER TABLE order_items ADD COLUMN category VARCHAR(100);
+
+CREATE TABLE sales_rollup_category (
+    category VARCHAR(100)  NOT NULL PRIMARY KEY,
+    quantity BIGINT        NOT NULL,
+    revenue  NUMERIC(19,2) NOT NULL
+);
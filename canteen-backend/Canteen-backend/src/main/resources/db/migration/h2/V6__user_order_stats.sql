@@ -0,0 +1,6 @@
+-- H2 copy of mysql/V6
+CREATE TABLE user_order_stats (
+    username    VARCHAR(255)  NOT NULL PRIMARY KEY,
+    order_count BIGINT        NOT NULL,
+    total_spent NUMERIC(19,2) NOT NULL
+);
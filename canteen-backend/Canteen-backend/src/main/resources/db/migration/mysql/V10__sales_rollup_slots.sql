@@ -0,0 +1,11 @@
+-- Each rollup bucket is spread over several rows (slots) so that orders in the same hour or category
+-- update different rows instead of queueing on one row lock; readers sum the slots. Existing rows become slot 0.
+ALTER TABLE sales_rollup_hourly
+    ADD COLUMN slot INTEGER NOT NULL DEFAULT 0,
+    DROP PRIMARY KEY,
+    ADD PRIMARY KEY (bucket_day, bucket_hour, slot);
+
+ALTER TABLE sales_rollup_category
+    ADD COLUMN slot INTEGER NOT NULL DEFAULT 0,
+    DROP PRIMARY KEY,
+    ADD PRIMARY KEY (category, slot);
@@ -0,0 +1,54 @@
+-- Schema as Hibernate's ddl-auto=update left it before the migrations took over. IF NOT EXISTS
+-- lets databases it created run this as a no-op (they are baselined at version 0); every later
+-- change is its own versioned migration, so those databases are brought up to date as well.
+
+CREATE TABLE IF NOT EXISTS staff (
+    username   VARCHAR(50)  NOT NULL,
+    password   VARCHAR(255) NOT NULL,
+    name       VARCHAR(255) NOT NULL,
+    role       VARCHAR(20)  NOT NULL,
+    department VARCHAR(100),
+    staff_id   VARCHAR(20)  NOT NULL,
+    PRIMARY KEY (username),
+    CONSTRAINT uk_staff_staff_id UNIQUE (staff_id)
+) ENGINE = InnoDB;
+
+CREATE TABLE IF NOT EXISTS meals (
+    id          BIGINT        NOT NULL AUTO_INCREMENT,
+    name        VARCHAR(255)  NOT NULL,
+    description VARCHAR(255),
+    price       DECIMAL(38,2) NOT NULL,
+    category    VARCHAR(255),
+    image_url   VARCHAR(255),
+    available   BOOLEAN       NOT NULL,
+    PRIMARY KEY (id)
+) ENGINE = InnoDB;
+
+CREATE TABLE IF NOT EXISTS orders (
+    id           BIGINT        NOT NULL AUTO_INCREMENT,
+    username     VARCHAR(255)  NOT NULL,
+    order_date   DATETIME(6)   NOT NULL,
+    total_amount DECIMAL(38,2) NOT NULL,
+    status       VARCHAR(255)  NOT NULL,
+    PRIMARY KEY (id)
+) ENGINE = InnoDB;
+
+CREATE TABLE IF NOT EXISTS order_items (
+    id        BIGINT        NOT NULL AUTO_INCREMENT,
+    order_id  BIGINT        NOT NULL,
+    meal_id   INTEGER       NOT NULL,
+    meal_name VARCHAR(255)  NOT NULL,
+    quantity  INTEGER       NOT NULL,
+    price     DECIMAL(38,2) NOT NULL,
+    PRIMARY KEY (id),
+    CONSTRAINT fk_order_items_order FOREIGN KEY (order_id) REFERENCES orders (id)
+) ENGINE = InnoDB;
+
+CREATE TABLE IF NOT EXISTS feedback (
+    id              BIGINT       NOT NULL AUTO_INCREMENT,
+    username        VARCHAR(255) NOT NULL,
+    rating          INTEGER      NOT NULL,
+    comments        TEXT,
+    submission_date DATETIME(6)  NOT NULL,
+    PRIMARY KEY (id)
+) ENGINE = InnoDB;
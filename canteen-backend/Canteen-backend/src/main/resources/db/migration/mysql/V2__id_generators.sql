@@ -0,0 +1,7 @@
+-- Orders and order items take their ids from pooled table generators instead of AUTO_INCREMENT,
+-- so their inserts can be JDBC-batched. IdGeneratorAligner raises the rows above existing ids.
+CREATE TABLE id_generators (
+    sequence_name VARCHAR(255) NOT NULL,
+    next_val      BIGINT,
+    PRIMARY KEY (sequence_name)
+) ENGINE = InnoDB;
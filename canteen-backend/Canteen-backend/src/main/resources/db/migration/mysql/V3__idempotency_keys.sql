@@ -0,0 +1,8 @@
+-- Idempotency-Key of each order request, kept for app.idempotency.record-ttl-hours
+CREATE TABLE idempotency_keys (
+    scoped_key VARCHAR(255) NOT NULL,
+    order_id   BIGINT       NOT NULL,
+    created_at DATETIME(6)  NOT NULL,
+    PRIMARY KEY (scoped_key),
+    INDEX idx_idempotency_created_at (created_at)
+) ENGINE = InnoDB;
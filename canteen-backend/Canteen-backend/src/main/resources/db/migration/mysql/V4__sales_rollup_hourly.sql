@@ -0,0 +1,8 @@
+-- Order count and revenue per hour; SalesRollupService fills it from orders on the first start
+CREATE TABLE sales_rollup_hourly (
+    bucket_day  DATE          NOT NULL,
+    bucket_hour INTEGER       NOT NULL,
+    order_count BIGINT        NOT NULL,
+    revenue     DECIMAL(19,2) NOT NULL,
+    PRIMARY KEY (bucket_day, bucket_hour)
+) ENGINE = InnoDB;
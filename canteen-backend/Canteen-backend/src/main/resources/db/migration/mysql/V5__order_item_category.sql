@@ -0,0 +1,10 @@
+-- Items record their meal's category at checkout. Existing items are left NULL here;
+-- SalesRollupService copies the category from meals and builds the rollup on the first start.
+ALTER TABLE order_items ADD COLUMN category VARCHAR(100);
+
+CREATE TABLE sales_rollup_category (
+    category VARCHAR(100)  NOT NULL,
+    quantity BIGINT        NOT NULL,
+    revenue  DECIMAL(19,2) NOT NULL,
+    PRIMARY KEY (category)
+) ENGINE = InnoDB;
@@ -0,0 +1,7 @@
+-- Order count and spend per user; UserActivityService fills it from orders on the first start
+CREATE TABLE user_order_stats (
+    username    VARCHAR(255)  NOT NULL,
+    order_count BIGINT        NOT NULL,
+    total_spent DECIMAL(19,2) NOT NULL,
+    PRIMARY KEY (username)
+) ENGINE = InnoDB;
@@ -165,6 +165,12 @@ async function handleLogin(event) {
                 data = {};
             }
 
+            if (response.status === 503) {
+                setErrorMessage('Many people are signing in right now. Please try again in a moment.');
+                setLoading(false);
+                return;
+            }
+
             if (!response.ok) {
                 setErrorMessage(data.message || 'Login failed');
                 console.log('Error message to display:', data.message);
@@ -625,3 +625,50 @@ function showNotification(message, type = 'info') {
         }, 300);
     }, 3000);
 }
+
+// Live order events from /api/orders/stream. EventSource cannot send the
+// Authorization header, so the stream is read with fetch and parsed here.
+// Reconnects with backoff; onEvent receives (type, data).
+function subscribeToOrderEvents(onEvent) {
+    let retryDelay = 1000;
+
+    async function connect() {
+        const token = sessionStorage.getItem('accessToken') || localStorage.getItem('accessToken');
+        if (!token) return;
+        try {
+            const response = await fetch('/api/orders/stream', {
+                headers: { 'Authorization': 'Bearer ' + token, 'Accept': 'text/event-stream' }
+            });
+            if (response.status === 401 || response.status === 403) return;
+            if (!response.ok || !response.body) throw new Error('Order stream unavailable');
+            retryDelay = 1000;
+
+            const reader = response.body.getReader();
+            const decoder = new TextDecoder();
+            let buffer = '';
+            while (true) {
+                const { value, done } = await reader.read();
+                if (done) break;
+                buffer += decoder.decode(value, { stream: true });
+                let boundary;
+                while ((boundary = buffer.indexOf('\n\n')) >= 0) {
+                    const block = buffer.slice(0, boundary);
+                    buffer = buffer.slice(boundary + 2);
+                    let type = 'message';
+                    const data = [];
+                    block.split('\n').forEach(line => {
+                        if (line.startsWith('event:')) type = line.slice(6).trim();
+                        else if (line.startsWith('data:')) data.push(line.slice(5));
+                    });
+                    if (data.length > 0) onEvent(type, JSON.parse(data.join('\n')));
+                }
+            }
+        } catch (error) {
+            console.warn('Order stream disconnected:', error);
+        }
+        setTimeout(connect, retryDelay);
+        retryDelay = Math.min(retryDelay * 2, 30000);
+    }
+
+    connect();
+}
@@ -0,0 +1,171 @@
+package com.canteen.Canteen.backend.config;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DataSourceTransactionManager;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.TransactionStatus;
+import org.springframework.transaction.interceptor.DefaultTransactionAttribute;
+import org.springframework.transaction.support.DefaultTransactionStatus;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.sql.DataSource;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+// Two in-memory H2 databases stand in for the primary and the replica; each knows its own name
+class ReadRoutingDataSourceTest {
+
+    private DataSource primary;
+    private DataSource replica;
+    private ReplicaLagMonitor lagMonitor;
+    private ReadRoutingDataSource routing;
+    private JdbcTemplate jdbcTemplate;
+    private TransactionTemplate readWrite;
+    private TransactionTemplate readOnly;
+    private TransactionTemplate finderReadOnly;
+    private DataSourceTransactionManager transactionManager;
+
+    @BeforeEach
+    void setUp() {
+        primary = database("primary");
+        replica = database("replica");
+        lagMonitor = new ReplicaLagMonitor(primary, replica, 1_000L);
+        routing = new ReadRoutingDataSource(primary, replica, lagMonitor);
+        DataSource dataSource = new LazyConnectionDataSourceProxy(routing);
+        jdbcTemplate = new JdbcTemplate(dataSource);
+        // Same hook as ReplicaRoutingConfig's JPA transaction manager
+        transactionManager = new DataSourceTransactionManager(dataSource) {
+            @Override
+            protected void prepareSynchronization(DefaultTransactionStatus status, TransactionDefinition definition) {
+                super.prepareSynchronization(status, definition);
+                ReadRoutingDataSource.markReplicaRead(status, definition);
+            }
+        };
+        readWrite = new TransactionTemplate(transactionManager);
+        readOnly = new TransactionTemplate(transactionManager);
+        readOnly.setReadOnly(true);
+        readOnly.setName(ReadRoutingDataSource.REPLICA);
+        // What Spring Data opens around a repository finder called outside a transaction
+        finderReadOnly = new TransactionTemplate(transactionManager);
+        finderReadOnly.setReadOnly(true);
+    }
+
+    @Test
+    void readOnlyTransactionsUseReplicaWhileItKeepsUp() {
+        replicateHeartbeat(0L);
+        lagMonitor.check();
+
+        assertTrue(lagMonitor.isReplicaUsable());
+        assertEquals("replica", readOnly.execute(status -> source()));
+        assertEquals("primary", readWrite.execute(status -> source()));
+        assertEquals("primary", source());
+        assertEquals(1L, routing.getReplicaConnections());
+    }
+
+    @Test
+    void readOnlyWorkInsideAReadWriteTransactionStaysOnPrimary() {
+        replicateHeartbeat(0L);
+        lagMonitor.check();
+
+        // What a write path sees when it calls a read-only repository finder inside its own transaction
+        assertEquals("primary", readWrite.execute(status -> readOnly.execute(inner -> source())));
+        assertEquals(0L, routing.getReplicaConnections());
+    }
+
+    @Test
+    void labelledReadOnlyTransactionsUseReplica() {
+        replicateHeartbeat(0L);
+        lagMonitor.check();
+
+        DefaultTransactionAttribute attribute = new DefaultTransactionAttribute();
+        attribute.setReadOnly(true);
+        attribute.setLabels(List.of(ReadRoutingDataSource.REPLICA));
+        TransactionStatus status = transactionManager.getTransaction(attribute);
+        try {
+            assertEquals("replica", source());
+        } finally {
+            transactionManager.commit(status);
+        }
+        assertEquals("primary", source());
+    }
+
+    @Test
+    void implicitFinderTransactionsStayOnPrimary() {
+        replicateHeartbeat(0L);
+        lagMonitor.check();
+
+        // Read-your-writes: a list reloaded right after an order event must not come from the replica
+        assertEquals("primary", finderReadOnly.execute(status -> source()));
+        assertEquals("replica", readOnly.execute(status -> finderReadOnly.execute(inner -> source())));
+        assertEquals(1L, routing.getReplicaConnections());
+        assertEquals(0L, routing.getFallbackConnections());
+    }
+
+    @Test
+    void laggingReplicaFallsBackToPrimary() {
+        replicateHeartbeat(60_000L);
+        lagMonitor.check();
+
+        assertFalse(lagMonitor.isReplicaUsable());
+        assertTrue(lagMonitor.getLagMillis() >= 60_000L);
+        assertEquals("primary", readOnly.execute(status -> source()));
+        assertEquals(1L, routing.getFallbackConnections());
+
+        replicateHeartbeat(0L);
+        lagMonitor.check();
+        assertEquals("replica", readOnly.execute(status -> source()));
+    }
+
+    @Test
+    void unreachableReplicaFallsBackToPrimary() {
+        replicateHeartbeat(0L);
+        lagMonitor.check();
+        new JdbcTemplate(replica).execute("DROP TABLE replica_heartbeat");
+        lagMonitor.check();
+
+        assertFalse(lagMonitor.isReplicaUsable());
+        assertEquals(-1L, lagMonitor.getLagMillis());
+        assertEquals("primary", readOnly.execute(status -> source()));
+    }
+
+    @Test
+    void replicaIsNotUsedBeforeFirstCheck() {
+        assertEquals("primary", readOnly.execute(status -> source()));
+    }
+
+    @Test
+    void checkStampsHeartbeatOnPrimary() {
+        lagMonitor.check();
+        Long beat = new JdbcTemplate(primary).queryForObject("SELECT beat_millis FROM replica_heartbeat WHERE id = 1", Long.class);
+        assertTrue(beat != null && beat > 0L);
+    }
+
+    private String source() {
+        return jdbcTemplate.queryForObject("SELECT name FROM source", String.class);
+    }
+
+    // There is no real replication between the two databases, so the test writes the replica's heartbeat itself
+    private void replicateHeartbeat(long behindMillis) {
+        JdbcTemplate replicaJdbc = new JdbcTemplate(replica);
+        replicaJdbc.update("DELETE FROM replica_heartbeat");
+        replicaJdbc.update("INSERT INTO replica_heartbeat (id, beat_millis) VALUES (1, ?)",
+                System.currentTimeMillis() - behindMillis);
+    }
+
+    private static DataSource database(String name) {
+        DataSource dataSource = new DriverManagerDataSource("jdbc:h2:mem:routing_" + name + ";DB_CLOSE_DELAY=-1", "sa", "");
+        JdbcTemplate jdbc = new JdbcTemplate(dataSource);
+        jdbc.execute("DROP ALL OBJECTS");
+        jdbc.execute("CREATE TABLE replica_heartbeat (id INTEGER NOT NULL PRIMARY KEY, beat_millis BIGINT NOT NULL)");
+        jdbc.execute("CREATE TABLE source (name VARCHAR(20) NOT NULL)");
+        jdbc.update("INSERT INTO source (name) VALUES (?)", name);
+        return dataSource;
+    }
+}
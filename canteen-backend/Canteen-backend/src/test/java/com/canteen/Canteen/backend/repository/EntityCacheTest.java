@@ -0,0 +1,85 @@
+package com.canteen.Canteen.backend.repository;
+
+import com.canteen.Canteen.backend.model.Meal;
+import com.canteen.Canteen.backend.model.Staff;
+import com.canteen.Canteen.backend.service.DashboardMetricsService;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.math.BigDecimal;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+// Repeated Meal and Staff lookups must not reach the database until the row is written again.
+// Not transactional: second-level cache entries are only written when a transaction commits.
+@DataJpaTest(properties = {
+        "spring.jpa.properties.hibernate.dialect=org.hibernate.dialect.H2Dialect",
+        "spring.jpa.properties.hibernate.generate_statistics=true"
+})
+@Import(DashboardMetricsService.class)
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+class EntityCacheTest {
+
+    @Autowired
+    private MealRepository mealRepository;
+
+    @Autowired
+    private StaffRepository staffRepository;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @AfterEach
+    void cleanUp() {
+        mealRepository.deleteAll();
+        staffRepository.deleteAll();
+    }
+
+    @Test
+    void mealByNameIsCachedUntilTheMealChanges() {
+        Meal meal = new Meal();
+        meal.setName("Jollof Rice with Chicken");
+        meal.setPrice(new BigDecimal("1500"));
+        meal.setCategory("Main Course");
+        meal = mealRepository.save(meal);
+
+        Statistics statistics = statistics();
+        mealRepository.findByName("Jollof Rice with Chicken");
+        mealRepository.findByName("Jollof Rice with Chicken");
+        assertEquals(1, statistics.getPrepareStatementCount());
+        assertEquals(1, statistics.getQueryCacheHitCount());
+
+        meal.setPrice(new BigDecimal("1800"));
+        mealRepository.save(meal);
+
+        statistics.clear();
+        Meal reloaded = mealRepository.findByName("Jollof Rice with Chicken").orElseThrow();
+        assertEquals(0, new BigDecimal("1800").compareTo(reloaded.getPrice()));
+        assertEquals(0, statistics.getQueryCacheHitCount());
+    }
+
+    @Test
+    void staffByUsernameIsServedFromCache() {
+        staffRepository.save(new Staff("ada", "{noop}secret", "Ada Obi", "USER", "Finance", "UB100"));
+
+        Statistics statistics = statistics();
+        staffRepository.findByUsername("ada");
+        staffRepository.findByUsername("ada");
+        assertEquals(1, statistics.getPrepareStatementCount());
+        assertEquals(1, statistics.getQueryCacheHitCount());
+    }
+
+    private Statistics statistics() {
+        Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+        return statistics;
+    }
+}
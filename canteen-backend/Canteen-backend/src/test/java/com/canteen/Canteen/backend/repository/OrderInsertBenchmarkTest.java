@@ -0,0 +1,158 @@
+package com.canteen.Canteen.backend.repository;
+
+import com.canteen.Canteen.backend.model.Order;
+import com.canteen.Canteen.backend.model.OrderItem;
+import com.canteen.Canteen.backend.service.DashboardMetricsService;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.Session;
+import org.hibernate.SessionEventListener;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Checks that multi-item order inserts go out as JDBC batches. The timed
+ * comparison runs the same TABLE-generated ids with a JDBC batch size of 1,
+ * so only batching differs; it is opt-in, run it with:
+ * mvn test -Dtest=OrderInsertBenchmarkTest -Dbenchmark=true
+ */
+@DataJpaTest(properties = {
+        "spring.jpa.properties.hibernate.dialect=org.hibernate.dialect.H2Dialect",
+        "spring.jpa.properties.hibernate.generate_statistics=true",
+        "spring.jpa.properties.hibernate.jdbc.batch_size=50",
+        "spring.jpa.properties.hibernate.order_inserts=true"
+})
+@Import(DashboardMetricsService.class)
+class OrderInsertBenchmarkTest {
+
+    private static final Logger log = LoggerFactory.getLogger(OrderInsertBenchmarkTest.class);
+
+    private static final int WARMUP_ORDERS = 2_000;
+    private static final int MEASURED_ORDERS = 10_000;
+    private static final int ITEMS_PER_ORDER = 5;
+    private static final int CHECKED_ORDERS = 20;
+
+    @Autowired
+    private OrderRepository orderRepository;
+
+    @Autowired
+    private EntityManager entityManager;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    // Not timed, so it runs with every build: the inserts must leave in batches, not one statement per row
+    @Test
+    void ordersAndItemsFlushInJdbcBatches() {
+        for (int i = 0; i < CHECKED_ORDERS; i++) {
+            orderRepository.save(newOrder(i));
+        }
+        // Ids are already allocated, so the flush runs nothing but the inserts
+        JdbcCounter jdbc = new JdbcCounter();
+        entityManager.unwrap(Session.class).addEventListeners(jdbc);
+        entityManager.flush();
+
+        // 20 orders fit in one batch of 50; their 100 items take two
+        assertEquals(3, jdbc.batches);
+        assertEquals(0, jdbc.statements);
+    }
+
+    @Test
+    @EnabledIfSystemProperty(named = "benchmark", matches = "true")
+    void batchedInsertsOutperformBatchSizeOne() {
+        insertOrders(1, WARMUP_ORDERS);
+        insertOrders(50, WARMUP_ORDERS);
+
+        Result unbatched = insertOrders(1, MEASURED_ORDERS);
+        Result batched = insertOrders(50, MEASURED_ORDERS);
+
+        log.info("Order inserts, {} items each, TABLE ids", ITEMS_PER_ORDER);
+        log.info("  batch size 1:  {} orders/s, {} statements",
+                String.format("%,.0f", unbatched.ordersPerSecond), unbatched.statements);
+        log.info("  batch size 50: {} orders/s, {} statements",
+                String.format("%,.0f", batched.ordersPerSecond), batched.statements);
+
+        assertTrue(batched.statements < unbatched.statements);
+    }
+
+    private Result insertOrders(int jdbcBatchSize, int count) {
+        entityManager.unwrap(Session.class).setJdbcBatchSize(jdbcBatchSize);
+        Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+
+        long start = System.nanoTime();
+        for (int i = 0; i < count; i++) {
+            orderRepository.save(newOrder(i));
+            if ((i + 1) % 50 == 0) {
+                entityManager.flush();
+                entityManager.clear();
+            }
+        }
+        entityManager.flush();
+        entityManager.clear();
+        long elapsed = System.nanoTime() - start;
+
+        return new Result(count / (elapsed / 1_000_000_000.0), statistics.getPrepareStatementCount());
+    }
+
+    private Order newOrder(int n) {
+        Order order = new Order();
+        order.setUsername("bench" + (n % 100));
+        order.setOrderDate(LocalDateTime.now());
+        order.setStatus("Pending");
+        BigDecimal total = BigDecimal.ZERO;
+        for (int i = 0; i < ITEMS_PER_ORDER; i++) {
+            OrderItem item = new OrderItem();
+            item.setOrder(order);
+            item.setMealId(i + 1);
+            item.setMealName("Meal " + (i + 1));
+            item.setQuantity(1);
+            item.setPrice(new BigDecimal("1000"));
+            order.getItems().add(item);
+            total = total.add(item.getPrice());
+        }
+        order.setTotalAmount(total);
+        return order;
+    }
+
+    // Counts JDBC executions in one session; a batch counts once however many rows it carries
+    private static final class JdbcCounter implements SessionEventListener {
+        private static final long serialVersionUID = 1L;
+
+        private int batches;
+        private int statements;
+
+        @Override
+        public void jdbcExecuteBatchStart() {
+            batches++;
+        }
+
+        @Override
+        public void jdbcExecuteStatementStart() {
+            statements++;
+        }
+    }
+
+    private static final class Result {
+        private final double ordersPerSecond;
+        private final long statements;
+
+        private Result(double ordersPerSecond, long statements) {
+            this.ordersPerSecond = ordersPerSecond;
+            this.statements = statements;
+        }
+    }
+}
@@ -0,0 +1,107 @@
+package com.canteen.Canteen.backend.repository;
+
+import com.canteen.Canteen.backend.model.Order;
+import com.canteen.Canteen.backend.model.OrderItem;
+import com.canteen.Canteen.backend.service.DashboardMetricsService;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.function.Supplier;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+// The number of SQL statements behind each order listing must not grow with the number of orders returned
+@DataJpaTest(properties = {
+        "spring.jpa.properties.hibernate.dialect=org.hibernate.dialect.H2Dialect",
+        "spring.jpa.properties.hibernate.generate_statistics=true"
+})
+@Import(DashboardMetricsService.class)
+class OrderRepositoryQueryCountTest {
+
+    private static final LocalDateTime EARLIEST = LocalDateTime.of(1970, 1, 1, 0, 0);
+    private static final LocalDateTime LATEST = LocalDateTime.of(9999, 12, 31, 0, 0);
+
+    @Autowired
+    private OrderRepository orderRepository;
+
+    @Autowired
+    private EntityManager entityManager;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @BeforeEach
+    void seedOrders() {
+        createOrders("few", 3);
+        createOrders("many", 30);
+        entityManager.flush();
+        entityManager.clear();
+    }
+
+    @Test
+    void orderHistoryStatementCountIsIndependentOfPageSize() {
+        long few = statementsFor(() -> orderRepository.findPageWithItemsByUsername("few", null, EARLIEST, LATEST, Long.MIN_VALUE, 50));
+        long many = statementsFor(() -> orderRepository.findPageWithItemsByUsername("many", null, EARLIEST, LATEST, Long.MIN_VALUE, 50));
+        assertEquals(2, few);
+        assertEquals(few, many);
+    }
+
+    @Test
+    void adminListingStatementCountIsIndependentOfPageSize() {
+        long small = statementsFor(() -> orderRepository.findPageWithItems(null, EARLIEST, LATEST, Long.MIN_VALUE, 3));
+        long large = statementsFor(() -> orderRepository.findPageWithItems(null, EARLIEST, LATEST, Long.MIN_VALUE, 33));
+        assertEquals(2, small);
+        assertEquals(small, large);
+    }
+
+    @Test
+    void recentOrdersStatementCountIsIndependentOfPageSize() {
+        long small = statementsFor(() -> orderRepository.findRecentWithItems(1));
+        long large = statementsFor(() -> orderRepository.findRecentWithItems(20));
+        assertEquals(small, large);
+    }
+
+    // Runs the query and touches every item, as JSON serialization would
+    private long statementsFor(Supplier<List<Order>> query) {
+        entityManager.clear();
+        Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+        List<Order> orders = query.get();
+        orders.forEach(order -> order.getItems().forEach(OrderItem::getMealName));
+        return statistics.getPrepareStatementCount();
+    }
+
+    private void createOrders(String username, int count) {
+        LocalDateTime start = LocalDateTime.of(2024, 7, 1, 12, 0);
+        for (int i = 0; i < count; i++) {
+            Order order = new Order();
+            order.setUsername(username);
+            order.setOrderDate(start.plusMinutes(i));
+            order.setStatus("Pending");
+            order.setTotalAmount(new BigDecimal("2300"));
+            order.getItems().add(item(order, 1, "Jollof Rice with Chicken", "1500"));
+            order.getItems().add(item(order, 5, "Moin Moin & Eko", "800"));
+            entityManager.persist(order);
+        }
+    }
+
+    private OrderItem item(Order order, int mealId, String mealName, String price) {
+        OrderItem item = new OrderItem();
+        item.setOrder(order);
+        item.setMealId(mealId);
+        item.setMealName(mealName);
+        item.setQuantity(1);
+        item.setPrice(new BigDecimal(price));
+        return item;
+    }
+}
@@ -0,0 +1,76 @@
+package com.canteen.Canteen.backend.repository;
+
+import com.canteen.Canteen.backend.service.DashboardMetricsService;
+import org.flywaydb.core.Flyway;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.flyway.FlywayMigrationStrategy;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Import;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+// A database that ddl-auto=update created before the migrations existed must be brought up to the
+// schema the entities expect; the context only starts if Hibernate's validation passes afterwards.
+@DataJpaTest(properties = "spring.jpa.properties.hibernate.dialect=org.hibernate.dialect.H2Dialect")
+@Import({DashboardMetricsService.class, PreSeriesSchemaMigrationTest.PreSeriesDatabase.class})
+class PreSeriesSchemaMigrationTest {
+
+    // What Hibernate generated from the original entities (feedback.comments as in h2/V1, see there)
+    private static final List<String> PRE_SERIES_SCHEMA = List.of(
+            "create table staff (department varchar(100), name varchar(255) not null, password varchar(255) not null, " +
+                    "role varchar(20) not null, staff_id varchar(20) not null unique, username varchar(50) not null, primary key (username))",
+            "create table meals (available boolean not null, price numeric(38,2) not null, id bigint generated by default as identity, " +
+                    "category varchar(255), description varchar(255), image_url varchar(255), name varchar(255) not null, primary key (id))",
+            "create table orders (total_amount numeric(38,2) not null, id bigint generated by default as identity, " +
+                    "order_date timestamp(6) not null, status varchar(255) not null, username varchar(255) not null, primary key (id))",
+            "create table order_items (meal_id integer not null, price numeric(38,2) not null, quantity integer not null, " +
+                    "id bigint generated by default as identity, order_id bigint not null, meal_name varchar(255) not null, primary key (id))",
+            "alter table if exists order_items add constraint FKbioxgbv59vetrxe0ejfubep1w foreign key (order_id) references orders",
+            "create table feedback (rating integer not null, id bigint generated by default as identity, " +
+                    "submission_date timestamp(6) not null, comments varchar(65535), username varchar(255) not null, primary key (id))",
+            "insert into orders (id, username, order_date, total_amount, status) values (7, 'ada', timestamp '2024-07-01 12:30:00', 3000, 'Completed')",
+            "insert into order_items (id, order_id, meal_id, meal_name, quantity, price) values (11, 7, 1, 'Jollof Rice with Chicken', 2, 1500)");
+
+    @TestConfiguration
+    static class PreSeriesDatabase {
+
+        // Lays down the old schema in the empty test database, then migrates with the application's settings
+        @Bean
+        FlywayMigrationStrategy preSeriesThenMigrate() {
+            return flyway -> {
+                JdbcTemplate jdbc = new JdbcTemplate(flyway.getConfiguration().getDataSource());
+                PRE_SERIES_SCHEMA.forEach(jdbc::execute);
+                flyway.migrate();
+            };
+        }
+    }
+
+    @Autowired
+    private Flyway flyway;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Test
+    void existingDatabaseIsBaselinedAndMigrated() {
+        assertEquals("0", flyway.info().applied()[0].getVersion().getVersion());
+        assertEquals(0, flyway.info().pending().length);
+    }
+
+    @Test
+    void existingRowsSurviveAndItemsGainCategory() {
+        assertEquals(1, jdbcTemplate.queryForObject("SELECT COUNT(*) FROM orders WHERE id = 7", Integer.class));
+        assertNull(jdbcTemplate.queryForObject("SELECT category FROM order_items WHERE id = 11", String.class));
+        for (String table : List.of("id_generators", "idempotency_keys", "sales_rollup_hourly",
+                "sales_rollup_category", "user_order_stats", "replica_heartbeat")) {
+            assertEquals(0, jdbcTemplate.queryForObject("SELECT COUNT(*) FROM " + table, Integer.class), table);
+        }
+    }
+}
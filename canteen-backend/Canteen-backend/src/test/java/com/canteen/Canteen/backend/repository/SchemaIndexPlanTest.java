@@ -0,0 +1,135 @@
+package com.canteen.Canteen.backend.repository;
+
+import org.flywaydb.core.Flyway;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+// Every hot query must be able to use an index on the migrated schema; a table scan in the plan fails the test
+class SchemaIndexPlanTest {
+
+    private static final String URL = "jdbc:h2:mem:plans;MODE=MySQL;DATABASE_TO_LOWER=TRUE;DB_CLOSE_DELAY=-1";
+
+    private static Connection connection;
+
+    @BeforeAll
+    static void migrateAndSeed() throws SQLException {
+        Flyway.configure()
+                .dataSource(URL, "sa", "")
+                .locations("classpath:db/migration/common", "classpath:db/migration/h2")
+                .load()
+                .migrate();
+        connection = DriverManager.getConnection(URL, "sa", "");
+        try (Statement statement = connection.createStatement()) {
+            statement.execute("INSERT INTO meals (id, name, description, price, category, image_url, available) " +
+                    "SELECT n, 'Meal ' || n, NULL, 5.00, 'Mains', NULL, TRUE FROM " + range(20));
+            // 2000 orders over roughly a year, 50 users, a few still open
+            statement.execute("INSERT INTO orders (id, username, order_date, total_amount, status) " +
+                    "SELECT n, 'user' || MOD(n, 50), DATEADD('HOUR', -4 * n, TIMESTAMP '2025-01-01 12:00:00'), 12.50, " +
+                    "CASE MOD(n, 100) WHEN 0 THEN 'Pending' WHEN 1 THEN 'Processing' ELSE 'Completed' END " +
+                    "FROM " + range(2000));
+            statement.execute("INSERT INTO order_items (id, order_id, meal_id, meal_name, quantity, price, category) " +
+                    "SELECT n, 1 + MOD(n - 1, 2000), 1 + MOD(n, 20), 'Meal ' || (1 + MOD(n, 20)), 1 + MOD(n, 3), 5.00, 'Mains' " +
+                    "FROM " + range(6000));
+            // Real selectivity, so an index on a column most rows share (status) is not preferred
+            statement.execute("ANALYZE");
+        }
+    }
+
+    @AfterAll
+    static void close() throws SQLException {
+        if (connection != null) {
+            connection.close();
+        }
+    }
+
+    @Test
+    void orderHistoryPageUsesUsernameIndex() throws SQLException {
+        assertIndexed("SELECT o.id FROM orders o WHERE o.username = 'user7' " +
+                "AND o.order_date >= TIMESTAMP '2024-01-01 00:00:00' " +
+                "AND (o.order_date < TIMESTAMP '2025-01-02 00:00:00' " +
+                "OR (o.order_date = TIMESTAMP '2025-01-02 00:00:00' AND o.id < 9223372036854775807)) " +
+                "ORDER BY o.order_date DESC, o.id DESC LIMIT 50", "idx_orders_username_date");
+    }
+
+    @Test
+    void adminOrderPageUsesDateIndex() throws SQLException {
+        assertIndexed("SELECT o.id FROM orders o WHERE o.order_date >= TIMESTAMP '2024-12-01 00:00:00' " +
+                "AND (o.order_date < TIMESTAMP '2025-01-02 00:00:00' " +
+                "OR (o.order_date = TIMESTAMP '2025-01-02 00:00:00' AND o.id < 9223372036854775807)) " +
+                "ORDER BY o.order_date DESC, o.id DESC LIMIT 50", "idx_orders_date");
+    }
+
+    @Test
+    void adminOrderPageByStatusUsesStatusDateIndex() throws SQLException {
+        assertIndexed("SELECT o.id FROM orders o WHERE o.status = 'Completed' " +
+                "AND o.order_date >= TIMESTAMP '2024-12-01 00:00:00' " +
+                "AND (o.order_date < TIMESTAMP '2025-01-02 00:00:00' " +
+                "OR (o.order_date = TIMESTAMP '2025-01-02 00:00:00' AND o.id < 9223372036854775807)) " +
+                "ORDER BY o.order_date DESC, o.id DESC LIMIT 50", "idx_orders_status_date");
+    }
+
+    @Test
+    void recentOrdersReadDateIndexInOrder() throws SQLException {
+        assertIndexed("SELECT o.id FROM orders o ORDER BY o.order_date DESC, o.id DESC LIMIT 20", "idx_orders_date");
+    }
+
+    @Test
+    void pageFetchJoinUsesKeys() throws SQLException {
+        assertIndexed("SELECT o.*, oi.* FROM orders o LEFT JOIN order_items oi ON oi.order_id = o.id " +
+                "WHERE o.id IN (3, 17, 250, 1999)", "fk_order_items_order");
+    }
+
+    @Test
+    void ordersByUsernameUseUsernameIndex() throws SQLException {
+        assertIndexed("SELECT o.* FROM orders o WHERE o.username = 'user7'", "idx_orders_username_date");
+    }
+
+    @Test
+    void kitchenBoardRebuildUsesStatusIndex() throws SQLException {
+        assertIndexed("SELECT o.*, oi.* FROM orders o LEFT JOIN order_items oi ON oi.order_id = o.id " +
+                "WHERE o.status IN ('Pending', 'Processing')", "idx_orders_status_date");
+    }
+
+    @Test
+    void mealLookupByNameUsesNameIndex() throws SQLException {
+        assertIndexed("SELECT m.* FROM meals m WHERE m.name = 'Meal 3'", "idx_meals_name");
+    }
+
+    @Test
+    void lastWeekOfSalesUsesDateAndOrderIndexes() throws SQLException {
+        assertIndexed("SELECT o.order_date, oi.meal_name, oi.quantity FROM order_items oi " +
+                "JOIN orders o ON o.id = oi.order_id WHERE o.order_date >= TIMESTAMP '2024-12-25 00:00:00'", "idx_orders_date");
+    }
+
+    // SYSTEM_RANGE's column is an upper-case X, which DATABASE_TO_LOWER would not match unquoted
+    private static String range(int count) {
+        return "(SELECT \"X\" AS n FROM SYSTEM_RANGE(1, " + count + "))";
+    }
+
+    private static void assertIndexed(String sql, String index) throws SQLException {
+        String plan = explain(sql).toLowerCase();
+        assertFalse(plan.contains("tablescan"), () -> "Full table scan in plan:\n" + plan);
+        assertTrue(plan.contains(index), () -> "Expected " + index + " in plan:\n" + plan);
+    }
+
+    private static String explain(String sql) throws SQLException {
+        try (Statement statement = connection.createStatement();
+             ResultSet rs = statement.executeQuery("EXPLAIN " + sql)) {
+            StringBuilder plan = new StringBuilder();
+            while (rs.next()) {
+                plan.append(rs.getString(1)).append('\n');
+            }
+            return plan.toString();
+        }
+    }
+}
@@ -0,0 +1,50 @@
+package com.canteen.Canteen.backend.security;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.security.authentication.AnonymousAuthenticationToken;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.authority.AuthorityUtils;
+import org.springframework.security.web.access.intercept.RequestAuthorizationContext;
+
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class ScrapeTokenAuthorizationManagerTest {
+
+    private static final Authentication ANONYMOUS =
+            new AnonymousAuthenticationToken("key", "anonymousUser", AuthorityUtils.createAuthorityList("ROLE_ANONYMOUS"));
+
+    @Test
+    void matchingBearerTokenIsGranted() {
+        ScrapeTokenAuthorizationManager manager = new ScrapeTokenAuthorizationManager("s3cret");
+
+        assertTrue(granted(manager, "Bearer s3cret"));
+    }
+
+    @Test
+    void otherOrMissingTokensAreDenied() {
+        ScrapeTokenAuthorizationManager manager = new ScrapeTokenAuthorizationManager("s3cret");
+
+        assertFalse(granted(manager, "Bearer s3cre"));
+        assertFalse(granted(manager, "Bearer s3cret2"));
+        assertFalse(granted(manager, "s3cret"));
+        assertFalse(granted(manager, null));
+    }
+
+    @Test
+    void blankTokenDeniesEveryone() {
+        ScrapeTokenAuthorizationManager manager = new ScrapeTokenAuthorizationManager("");
+
+        assertFalse(granted(manager, "Bearer "));
+        assertFalse(granted(manager, null));
+    }
+
+    private static boolean granted(ScrapeTokenAuthorizationManager manager, String authorizationHeader) {
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/actuator/prometheus");
+        if (authorizationHeader != null) {
+            request.addHeader("Authorization", authorizationHeader);
+        }
+        return manager.check(() -> ANONYMOUS, new RequestAuthorizationContext(request)).isGranted();
+    }
+}
@@ -0,0 +1,89 @@
+package com.canteen.Canteen.backend.security.jwt;
+
+import com.canteen.Canteen.backend.model.Staff;
+import com.canteen.Canteen.backend.repository.StaffRepository;
+import com.canteen.Canteen.backend.service.DashboardMetricsService;
+import jakarta.persistence.EntityManagerFactory;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+// Not transactional: each save must commit, as it would between two requests
+@DataJpaTest(properties = "spring.jpa.properties.hibernate.dialect=org.hibernate.dialect.H2Dialect")
+@Import({TokenEpochService.class, DashboardMetricsService.class})
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+class TokenEpochServiceTest {
+
+    @Autowired
+    private TokenEpochService tokenEpochService;
+
+    @Autowired
+    private StaffRepository staffRepository;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @AfterEach
+    void cleanUp() {
+        staffRepository.deleteAll();
+    }
+
+    @Test
+    void roleChangeRevokesEarlierTokens() {
+        Staff staff = staffRepository.save(staff("ada", "USER"));
+        long issued = staff.getTokenEpoch();
+        assertTrue(tokenEpochService.isCurrent("ada", issued));
+
+        staff = staffRepository.findByUsername("ada").orElseThrow();
+        staff.setRole("ADMIN");
+        staffRepository.save(staff);
+
+        assertFalse(tokenEpochService.isCurrent("ada", issued));
+        assertTrue(tokenEpochService.isCurrent("ada", issued + 1));
+    }
+
+    @Test
+    void otherUpdatesKeepTokensValid() {
+        staffRepository.save(staff("ada", "USER"));
+
+        Staff staff = staffRepository.findByUsername("ada").orElseThrow();
+        staff.setDepartment("Finance");
+        staffRepository.save(staff);
+
+        assertTrue(tokenEpochService.isCurrent("ada", 0L));
+    }
+
+    // The epoch is read back from staff.token_epoch, so a restarted process still rejects the token
+    @Test
+    void revocationIsStoredWithTheUser() {
+        staffRepository.save(staff("ada", "USER"));
+        Staff staff = staffRepository.findByUsername("ada").orElseThrow();
+        staff.setRole("ADMIN");
+        staffRepository.save(staff);
+
+        entityManagerFactory.getCache().evictAll();
+
+        assertEquals(1L, staffRepository.findByUsername("ada").orElseThrow().getTokenEpoch());
+        assertFalse(tokenEpochService.isCurrent("ada", 0L));
+    }
+
+    @Test
+    void removedUsersTokensAreRejected() {
+        staffRepository.save(staff("ada", "USER"));
+        staffRepository.delete(staffRepository.findByUsername("ada").orElseThrow());
+
+        assertFalse(tokenEpochService.isCurrent("ada", 0L));
+    }
+
+    private static Staff staff(String username, String role) {
+        return new Staff(username, "{noop}secret", "Ada Lovelace", role, "Kitchen", "S-" + username);
+    }
+}
@@ -0,0 +1,169 @@
+package com.canteen.Canteen.backend.service;
+
+import com.canteen.Canteen.backend.model.Order;
+import com.canteen.Canteen.backend.model.OrderItem;
+import com.canteen.Canteen.backend.repository.OrderRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.context.annotation.Import;
+import org.springframework.dao.DataAccessException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+// An order and its rollup rows commit or roll back together.
+// Not transactional: each service call must commit on its own.
+@DataJpaTest(properties = "spring.jpa.properties.hibernate.dialect=org.hibernate.dialect.H2Dialect")
+@Import({OrderService.class, DashboardMetricsService.class, SalesRollupService.class,
+        TopSellersService.class, UserActivityService.class})
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+class OrderServiceTest {
+
+    @MockBean
+    private OrderEventService orderEventService;
+
+    @MockBean
+    private KitchenQueueService kitchenQueueService;
+
+    @Autowired
+    private OrderService orderService;
+
+    @Autowired
+    private OrderRepository orderRepository;
+
+    @Autowired
+    private SalesRollupService salesRollupService;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @AfterEach
+    void cleanUp() {
+        jdbcTemplate.execute("DROP TABLE IF EXISTS broken_rollup");
+        jdbcTemplate.update("DELETE FROM order_items");
+        jdbcTemplate.update("DELETE FROM orders");
+        jdbcTemplate.update("DELETE FROM sales_rollup_hourly");
+        jdbcTemplate.update("DELETE FROM sales_rollup_category");
+        jdbcTemplate.update("DELETE FROM user_order_stats");
+    }
+
+    @Test
+    void createdOrderIsCountedInEveryRollup() {
+        orderService.create(order("ada"));
+
+        assertEquals(1, count("orders"));
+        assertEquals(1L, jdbcTemplate.queryForObject("SELECT SUM(order_count) FROM sales_rollup_hourly", Long.class));
+        assertEquals(2L, jdbcTemplate.queryForObject("SELECT SUM(quantity) FROM sales_rollup_category WHERE category = 'Main Course'", Long.class));
+        assertEquals(1L, jdbcTemplate.queryForObject("SELECT order_count FROM user_order_stats WHERE username = 'ada'", Long.class));
+    }
+
+    @Test
+    void ordersInTheSameHourSpreadOverSlotsAndReadAsOneBucket() {
+        for (int i = 0; i < 40; i++) {
+            orderService.create(order("ada"));
+        }
+
+        // 40 orders all landing in one of 8 slots is vanishingly unlikely
+        assertTrue(count("sales_rollup_hourly") > 1);
+        assertTrue(count("sales_rollup_category") > 1);
+        LocalDate day = LocalDate.of(2024, 7, 1);
+        List<Map<String, Object>> hourly = salesRollupService.hourlyTotals(day, day);
+        assertEquals(1, hourly.size());
+        assertEquals(40L, ((Number) hourly.get(0).get("orders")).longValue());
+        assertEquals(0, new BigDecimal("120000").compareTo((BigDecimal) hourly.get(0).get("total")));
+        List<Map<String, Object>> categories = salesRollupService.categoryTotals();
+        assertEquals(1, categories.size());
+        assertEquals(80L, ((Number) categories.get(0).get("quantity")).longValue());
+
+        assertEquals(1, salesRollupService.rebuild());
+        assertEquals(1, count("sales_rollup_hourly"));
+        assertEquals(40L, ((Number) salesRollupService.dailyTotals(day, day).get(0).get("orders")).longValue());
+    }
+
+    @Test
+    void failedRollupWriteRollsBackTheOrder() {
+        breakTable("sales_rollup_hourly");
+        try {
+            assertThrows(DataAccessException.class, () -> orderService.create(order("ada")));
+        } finally {
+            restoreTable("sales_rollup_hourly");
+        }
+
+        assertEquals(0, count("orders"));
+        assertEquals(0, count("order_items"));
+        assertEquals(0, count("user_order_stats"));
+    }
+
+    @Test
+    void failedCategoryRollupWriteRollsBackTheOrder() {
+        breakTable("sales_rollup_category");
+        try {
+            assertThrows(DataAccessException.class, () -> orderService.create(order("ada")));
+        } finally {
+            restoreTable("sales_rollup_category");
+        }
+
+        assertEquals(0, count("orders"));
+        assertEquals(0, count("sales_rollup_hourly"));
+    }
+
+    @Test
+    void failedRollupWriteRollsBackTheDelete() {
+        Order order = orderService.create(order("ada"));
+        Order loaded = orderRepository.findWithItemsById(order.getId()).orElseThrow();
+
+        breakTable("user_order_stats");
+        try {
+            assertThrows(DataAccessException.class, () -> orderService.delete(loaded));
+        } finally {
+            restoreTable("user_order_stats");
+        }
+
+        assertEquals(1, count("orders"));
+        assertEquals(1L, jdbcTemplate.queryForObject("SELECT SUM(order_count) FROM sales_rollup_hourly", Long.class));
+        assertEquals(2L, jdbcTemplate.queryForObject("SELECT SUM(quantity) FROM sales_rollup_category WHERE category = 'Main Course'", Long.class));
+    }
+
+    // Moves the table out of the way so writes to it fail
+    private void breakTable(String table) {
+        jdbcTemplate.execute("ALTER TABLE " + table + " RENAME TO broken_rollup");
+    }
+
+    private void restoreTable(String table) {
+        jdbcTemplate.execute("ALTER TABLE broken_rollup RENAME TO " + table);
+    }
+
+    private int count(String table) {
+        return jdbcTemplate.queryForObject("SELECT COUNT(*) FROM " + table, Integer.class);
+    }
+
+    private Order order(String username) {
+        Order order = new Order();
+        order.setUsername(username);
+        order.setOrderDate(LocalDateTime.of(2024, 7, 1, 12, 30));
+        order.setStatus("Pending");
+        order.setTotalAmount(new BigDecimal("3000"));
+        OrderItem item = new OrderItem();
+        item.setOrder(order);
+        item.setMealId(1);
+        item.setMealName("Jollof Rice with Chicken");
+        item.setQuantity(2);
+        item.setPrice(new BigDecimal("1500"));
+        item.setCategory("Main Course");
+        order.getItems().add(item);
+        return order;
+    }
+}
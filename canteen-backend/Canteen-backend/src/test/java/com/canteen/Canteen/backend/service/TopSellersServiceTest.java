@@ -0,0 +1,102 @@
+package com.canteen.Canteen.backend.service;
+
+import com.canteen.Canteen.backend.dto.TopSellingItemDTO;
+import com.canteen.Canteen.backend.model.Order;
+import com.canteen.Canteen.backend.model.OrderItem;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import org.springframework.jdbc.datasource.DataSourceTransactionManager;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+
+import javax.sql.DataSource;
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+// Orders committed by other requests while a rebuild reads must survive it; the rebuild's
+// first query hands control to such a request before reading anything.
+class TopSellersServiceTest {
+
+    private JdbcTemplate database;
+    private Runnable duringRead;
+    private TopSellersService topSellersService;
+
+    @BeforeEach
+    void setUp() {
+        DataSource dataSource = new DriverManagerDataSource("jdbc:h2:mem:top_sellers;DB_CLOSE_DELAY=-1", "sa", "");
+        database = new JdbcTemplate(dataSource);
+        database.execute("DROP ALL OBJECTS");
+        database.execute("CREATE TABLE orders (id BIGINT PRIMARY KEY, order_date TIMESTAMP NOT NULL)");
+        database.execute("CREATE TABLE order_items (order_id BIGINT NOT NULL, meal_name VARCHAR(255) NOT NULL, quantity INTEGER NOT NULL)");
+        database.update("INSERT INTO orders (id, order_date) VALUES (1, ?)", LocalDateTime.now());
+        database.update("INSERT INTO order_items (order_id, meal_name, quantity) VALUES (1, 'Jollof Rice', 2)");
+
+        duringRead = () -> { };
+        JdbcTemplate interrupted = new JdbcTemplate(dataSource) {
+            @Override
+            public void query(String sql, RowCallbackHandler rch) {
+                Runnable action = duringRead;
+                duringRead = () -> { };
+                // Another request's thread, so its commit hook runs outside the rebuild's transaction
+                CompletableFuture.runAsync(action).join();
+                super.query(sql, rch);
+            }
+        };
+        topSellersService = new TopSellersService(interrupted, new DataSourceTransactionManager(dataSource), 10);
+        topSellersService.rebuild();
+    }
+
+    @Test
+    void rebuildLoadsCommittedSales() {
+        assertEquals(List.of(new TopSellingItemDTO("Jollof Rice", 2)),
+                topSellersService.top(TopSellersService.Window.ALL_TIME, 5));
+        assertEquals(List.of(new TopSellingItemDTO("Jollof Rice", 2)),
+                topSellersService.top(TopSellersService.Window.TODAY, 5));
+    }
+
+    @Test
+    void orderCommittedDuringRebuildIsKept() {
+        duringRead = () -> topSellersService.orderCreated(order("Jollof Rice", 3));
+
+        topSellersService.rebuild();
+
+        assertEquals(List.of(new TopSellingItemDTO("Jollof Rice", 5)),
+                topSellersService.top(TopSellersService.Window.ALL_TIME, 5));
+        assertEquals(List.of(new TopSellingItemDTO("Jollof Rice", 5)),
+                topSellersService.top(TopSellersService.Window.WEEK, 5));
+    }
+
+    @Test
+    void deleteCommittedDuringRebuildIsKept() {
+        // The delete commits after the rebuild's snapshot, so the rebuild still reads the order
+        duringRead = () -> topSellersService.ordersRemoved(List.of(order("Jollof Rice", 2)));
+        database.update("INSERT INTO orders (id, order_date) VALUES (2, ?)", LocalDateTime.now());
+        database.update("INSERT INTO order_items (order_id, meal_name, quantity) VALUES (2, 'Fried Rice', 1)");
+
+        topSellersService.rebuild();
+
+        assertEquals(List.of(new TopSellingItemDTO("Fried Rice", 1)),
+                topSellersService.top(TopSellersService.Window.ALL_TIME, 5));
+    }
+
+    private static Order order(String mealName, int quantity) {
+        Order order = new Order();
+        order.setUsername("ada");
+        order.setOrderDate(LocalDateTime.now());
+        order.setStatus("Pending");
+        order.setTotalAmount(new BigDecimal("1500").multiply(BigDecimal.valueOf(quantity)));
+        OrderItem item = new OrderItem();
+        item.setOrder(order);
+        item.setMealId(1);
+        item.setMealName(mealName);
+        item.setQuantity(quantity);
+        item.setPrice(new BigDecimal("1500"));
+        order.getItems().add(item);
+        return order;
+    }
+}
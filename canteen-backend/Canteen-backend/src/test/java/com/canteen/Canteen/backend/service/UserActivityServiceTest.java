@@ -0,0 +1,95 @@
+package com.canteen.Canteen.backend.service;
+
+import com.canteen.Canteen.backend.model.Order;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import org.springframework.jdbc.datasource.DataSourceTransactionManager;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.sql.DataSource;
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+// Orders committed by other requests while the index is read back must survive the reload; the
+// reload's query hands control to such a request once it has read the table.
+class UserActivityServiceTest {
+
+    private JdbcTemplate database;
+    private Runnable afterRead;
+    private UserActivityService userActivityService;
+
+    @BeforeEach
+    void setUp() {
+        DataSource dataSource = new DriverManagerDataSource("jdbc:h2:mem:user_activity;DB_CLOSE_DELAY=-1", "sa", "");
+        database = new JdbcTemplate(dataSource);
+        database.execute("DROP ALL OBJECTS");
+        database.execute("CREATE TABLE orders (id BIGINT PRIMARY KEY, username VARCHAR(255), total_amount NUMERIC(19,2))");
+        database.execute("CREATE TABLE user_order_stats (username VARCHAR(255) NOT NULL PRIMARY KEY, " +
+                "order_count BIGINT NOT NULL, total_spent NUMERIC(19,2) NOT NULL)");
+        database.update("INSERT INTO orders (id, username, total_amount) VALUES (1, 'ada', 3000)");
+
+        afterRead = () -> { };
+        JdbcTemplate interrupted = new JdbcTemplate(dataSource) {
+            @Override
+            public void query(String sql, RowCallbackHandler rch) {
+                super.query(sql, rch);
+                if (sql.contains("FROM user_order_stats")) {
+                    Runnable action = afterRead;
+                    afterRead = () -> { };
+                    // Another request's thread, committing after the reload has read the table
+                    CompletableFuture.runAsync(action).join();
+                }
+            }
+        };
+        TransactionTemplate transactionTemplate = new TransactionTemplate(new DataSourceTransactionManager(dataSource));
+        userActivityService = new UserActivityService(interrupted, transactionTemplate, null);
+        userActivityService.rebuild();
+    }
+
+    @Test
+    void rebuildLoadsCommittedOrders() {
+        assertEquals(List.of(activity("ada", 1, "3000.00")), userActivityService.topUsers(5));
+    }
+
+    @Test
+    void orderCommittedDuringReloadIsKept() {
+        afterRead = () -> userActivityService.orderCreated(order("ada", "1500"));
+
+        userActivityService.rebuild();
+
+        assertEquals(List.of(activity("ada", 2, "4500.00")), userActivityService.topUsers(5));
+        assertEquals(2L, database.queryForObject(
+                "SELECT order_count FROM user_order_stats WHERE username = 'ada'", Long.class));
+    }
+
+    @Test
+    void removalCommittedDuringReloadIsKept() {
+        database.update("INSERT INTO orders (id, username, total_amount) VALUES (2, 'bola', 1500)");
+        afterRead = () -> userActivityService.ordersRemoved(List.of(order("ada", "3000")));
+
+        userActivityService.rebuild();
+
+        assertEquals(List.of(activity("bola", 1, "1500.00")), userActivityService.topUsers(5));
+    }
+
+    private static Map<String, Object> activity(String username, long orders, String spent) {
+        return Map.of("username", username, "orders", orders, "spent", new BigDecimal(spent));
+    }
+
+    private static Order order(String username, String totalAmount) {
+        Order order = new Order();
+        order.setUsername(username);
+        order.setOrderDate(LocalDateTime.now());
+        order.setStatus("Pending");
+        order.setTotalAmount(new BigDecimal(totalAmount));
+        return order;
+    }
+}